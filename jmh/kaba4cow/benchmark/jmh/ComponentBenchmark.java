@@ -0,0 +1,169 @@
+package kaba4cow.benchmark.jmh;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JSpinner;
+import javax.swing.SwingUtilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kaba4cow.jdtm.JCalendarDataModel;
+import kaba4cow.jdtm.JCalendarDayGrid;
+import kaba4cow.jdtm.JCalendarPanel;
+import kaba4cow.jdtm.JCalendarSelectionModel;
+import kaba4cow.jdtm.JCalendarWeekList;
+import kaba4cow.jdtm.JClockPanel;
+import kaba4cow.jdtm.JTimeChooser;
+
+/**
+ * JMH benchmarks for the hot paths of the components, rendered headless. Run
+ * with {@code -prof gc} to report the allocation rate per operation. The
+ * components are built on the Event Dispatch Thread; they are never shown, so
+ * the tick scheduler never touches them and the benchmark thread is their only
+ * user afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ComponentBenchmark {
+
+	private final LocalDate[] sameMonthDates = { LocalDate.of(2024, 5, 14), LocalDate.of(2024, 5, 15) };
+	private final LocalDate[] crossMonthDates = { LocalDate.of(2024, 5, 31), LocalDate.of(2024, 6, 1) };
+
+	private JCalendarPanel calendarPanel;
+	private JCalendarDayGrid dayGrid;
+	private JCalendarWeekList weekList;
+	private JTimeChooser timeChooser;
+	private JSpinner secondSpinner;
+	private Integer rolloverSecond;
+	private JClockPanel clockPanel;
+	private BufferedImage image;
+	private Graphics2D graphics;
+	private LocalTime[] clockTimes;
+	private int index;
+
+	@Setup
+	public void setUp() throws InterruptedException, InvocationTargetException {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				createComponents();
+			}
+		});
+		image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+		graphics = image.createGraphics();
+		graphics.setClip(0, 0, image.getWidth(), image.getHeight());
+		clockTimes = new LocalTime[60];
+		for (int i = 0; i < clockTimes.length; i++)
+			clockTimes[i] = LocalTime.of(10, 10, i);
+		index = 0;
+	}
+
+	private void createComponents() {
+		JCalendarDataModel<String> dataModel = new JCalendarDataModel<>();
+		for (LocalDate date = LocalDate.of(2024, 1, 1); date.getYear() == 2024; date = date.plusDays(3L))
+			dataModel.add(date, date.plusDays(date.getDayOfMonth() % 4), "entry");
+		JCalendarSelectionModel selectionModel = new JCalendarSelectionModel();
+		selectionModel.setSelectionInterval(LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 10));
+
+		calendarPanel = new JCalendarPanel();
+		calendarPanel.setSize(calendarPanel.getPreferredSize());
+
+		dayGrid = new JCalendarDayGrid();
+		dayGrid.setDataModel(dataModel);
+		dayGrid.setSelectionModel(selectionModel);
+		dayGrid.setSize(dayGrid.getPreferredSize());
+
+		weekList = new JCalendarWeekList(LocalDate.of(2020, 1, 1), LocalDate.of(2029, 12, 31));
+		weekList.setDataModel(dataModel);
+		weekList.setSelectionModel(selectionModel);
+		weekList.setSize(400, 400);
+
+		timeChooser = new JTimeChooser(JTimeChooser.HOURS_MINUTES_SECONDS);
+		timeChooser.setTime(LocalTime.of(23, 59, 59));
+		secondSpinner = (JSpinner) timeChooser.getComponent(2);
+		rolloverSecond = 60;
+
+		clockPanel = new JClockPanel();
+		clockPanel.setSize(200, 200);
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public JCalendarPanel calendarPanelSelectDateSameMonth() {
+		calendarPanel.selectDate(sameMonthDates[index++ & 1]);
+		return calendarPanel;
+	}
+
+	@Benchmark
+	public JCalendarPanel calendarPanelSelectDateCrossMonth() {
+		calendarPanel.selectDate(crossMonthDates[index++ & 1]);
+		return calendarPanel;
+	}
+
+	@Benchmark
+	public JCalendarDayGrid dayGridSelectDateSameMonth() {
+		dayGrid.selectDate(sameMonthDates[index++ & 1]);
+		return dayGrid;
+	}
+
+	@Benchmark
+	public JCalendarDayGrid dayGridSelectDateCrossMonth() {
+		dayGrid.selectDate(crossMonthDates[index++ & 1]);
+		return dayGrid;
+	}
+
+	@Benchmark
+	public BufferedImage dayGridPaint() {
+		dayGrid.paint(graphics);
+		return image;
+	}
+
+	@Benchmark
+	public BufferedImage weekListPaint() {
+		weekList.paint(graphics);
+		return image;
+	}
+
+	@Benchmark
+	public long weekListGetEpochDayAt() {
+		int i = index++;
+		return weekList.getEpochDayAt(i * 37 % 400, i * 53 % 400);
+	}
+
+	@Benchmark
+	public JTimeChooser timeChooserRollover() {
+		secondSpinner.setValue(rolloverSecond);
+		return timeChooser;
+	}
+
+	@Benchmark
+	public BufferedImage clockPanelPaintComponent() {
+		clockPanel.setClockTime(clockTimes[index++ % 60]);
+		clockPanel.paint(graphics);
+		return image;
+	}
+
+}
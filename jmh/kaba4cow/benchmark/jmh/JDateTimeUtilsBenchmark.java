@@ -0,0 +1,79 @@
+package kaba4cow.benchmark.jmh;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kaba4cow.jdtm.JDateTimeUtils;
+
+/**
+ * JMH benchmarks for the formatters of {@link JDateTimeUtils}. Run with
+ * {@code -prof gc} to report the allocation rate per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class JDateTimeUtilsBenchmark {
+
+	private LocalDateTime[] dateTimes;
+	private StringBuilder builder;
+	private int index;
+
+	@Setup
+	public void setUp() {
+		dateTimes = new LocalDateTime[1024];
+		for (int i = 0; i < dateTimes.length; i++)
+			dateTimes[i] = LocalDateTime.of(2000, 1, 1, 0, 0).plusSeconds(i * 86461L);
+		builder = new StringBuilder(64);
+		index = 0;
+	}
+
+	private LocalDateTime next() {
+		return dateTimes[index++ & 1023];
+	}
+
+	@Benchmark
+	public String formatTitleTime() {
+		return JDateTimeUtils.formatTitleTime(next());
+	}
+
+	@Benchmark
+	public String formatTitleTimeSameSecond() {
+		return JDateTimeUtils.formatTitleTime(dateTimes[0]);
+	}
+
+	@Benchmark
+	public StringBuilder appendTitleTime() {
+		builder.setLength(0);
+		return JDateTimeUtils.appendTitleTime(builder, next());
+	}
+
+	@Benchmark
+	public String formatMonthYearDate() {
+		return JDateTimeUtils.formatMonthYearDate(next().toLocalDate());
+	}
+
+	@Benchmark
+	public String formatDate() {
+		return JDateTimeUtils.formatDate(next().toLocalDate());
+	}
+
+	@Benchmark
+	public String formatTime() {
+		return JDateTimeUtils.formatTime(next().toLocalTime());
+	}
+
+}
@@ -0,0 +1,121 @@
+package kaba4cow.benchmark.jmh;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kaba4cow.jdtm.JCalendarDataModel;
+import kaba4cow.jdtm.JCalendarSelectionModel;
+import kaba4cow.jdtm.JDateTimeExport;
+
+/**
+ * JMH benchmarks for the models behind the components and for
+ * {@link JDateTimeExport}. Run with {@code -prof gc} to report the allocation
+ * rate per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+	private static final int ENTRY_COUNT = 100000;
+	private static final int DAY_RANGE = 36500;
+
+	private JCalendarDataModel<Integer> dataModel;
+	private JCalendarDataModel.EntryVisitor<Integer> visitor;
+	private int[] counts;
+	private long visited;
+
+	private JCalendarSelectionModel selectionModel;
+
+	private JDateTimeExport export;
+	private int[] epochDays;
+	private char[] chars;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(8);
+		dataModel = new JCalendarDataModel<>();
+		long[] starts = new long[ENTRY_COUNT];
+		long[] ends = new long[ENTRY_COUNT];
+		Integer[] values = new Integer[ENTRY_COUNT];
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			starts[i] = random.nextInt(DAY_RANGE);
+			ends[i] = starts[i] + (random.nextInt(20) == 0 ? random.nextInt(60) : random.nextInt(3));
+			values[i] = i;
+		}
+		dataModel.addAll(starts, ends, Arrays.asList(values));
+		visitor = new JCalendarDataModel.EntryVisitor<Integer>() {
+			@Override
+			public void visit(long startEpochDay, long endEpochDay, Integer value) {
+				visited += value;
+			}
+		};
+		counts = new int[42];
+
+		selectionModel = new JCalendarSelectionModel();
+		for (int i = 0; i < 1000; i++)
+			selectionModel.addSelectionInterval(i * 10L, i * 10L + random.nextInt(6));
+
+		export = new JDateTimeExport('\n');
+		epochDays = new int[1024];
+		for (int i = 0; i < epochDays.length; i++)
+			epochDays[i] = (int) LocalDate.of(2000, 1, 1).toEpochDay() + i * 7;
+		chars = new char[epochDays.length * JDateTimeExport.getDateRecordLength()];
+		index = 0;
+	}
+
+	@Benchmark
+	public int dataModelQueryMonth() {
+		long from = index++ * 31L % DAY_RANGE;
+		return dataModel.query(from, from + 41L, visitor);
+	}
+
+	@Benchmark
+	public int[] dataModelFillCountsMonth() {
+		dataModel.fillCounts(index++ * 31L % DAY_RANGE, counts);
+		return counts;
+	}
+
+	@Benchmark
+	public boolean dataModelAddRemove() {
+		long start = index++ * 7919L % DAY_RANGE;
+		dataModel.add(start, start + 1L, -1);
+		return dataModel.remove(start, start + 1L, -1);
+	}
+
+	@Benchmark
+	public JCalendarSelectionModel selectionModelToggle() {
+		selectionModel.toggle(index++ * 13L % 10000L);
+		return selectionModel;
+	}
+
+	@Benchmark
+	public int selectionModelGetSelectedCountMonth() {
+		long from = index++ * 31L % 10000L;
+		return selectionModel.getSelectedCount(from, from + 41L);
+	}
+
+	@Benchmark
+	public int exportWriteDates() {
+		return export.writeDates(epochDays, 0, epochDays.length, chars, 0);
+	}
+
+}
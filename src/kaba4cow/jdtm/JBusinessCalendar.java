@@ -0,0 +1,566 @@
+package kaba4cow.jdtm;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable calendar of working days defined by a set of weekend days and
+ * pluggable {@link HolidayRule holiday rules}. Every year is expanded once into
+ * a bitmap of non-working days and a prefix-sum table of working days, and the
+ * working days of the expanded years are summed into a cumulative per-year
+ * table, so checking a day and counting the working days between two dates
+ * take constant time, and adding working days takes a binary search over the
+ * years and one within the resulting year, once the years spanned have been
+ * expanded. The calendar can be shared between threads.
+ */
+public final class JBusinessCalendar {
+
+	private static final JBusinessCalendar weekends = new JBusinessCalendar(
+			EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+
+	private final int weekendMask;
+	private final HolidayRule[] rules;
+	private final ConcurrentHashMap<Integer, YearTable> tables;
+
+	private volatile YearTable lastTable;
+	private volatile YearCounts yearCounts;
+
+	/**
+	 * Constructs a new JBusinessCalendar.
+	 *
+	 * @param weekendDays the days of week that are not working days
+	 * @param rules       the rules that define the holidays
+	 * @throws IllegalArgumentException if every day of week is a weekend day
+	 */
+	public JBusinessCalendar(Collection<DayOfWeek> weekendDays, HolidayRule... rules) {
+		int weekendMask = 0;
+		for (DayOfWeek day : weekendDays)
+			weekendMask |= 1 << (day.getValue() - 1);
+		if (weekendMask == 0x7F)
+			throw new IllegalArgumentException("At least one day of week must be a working day");
+		this.weekendMask = weekendMask;
+		this.rules = rules.clone();
+		this.tables = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Gets the shared calendar in which Saturdays and Sundays are the only
+	 * non-working days.
+	 *
+	 * @return the shared calendar
+	 */
+	public static JBusinessCalendar getWeekendCalendar() {
+		return weekends;
+	}
+
+	/**
+	 * Checks whether a day is a working day.
+	 *
+	 * @param date the day
+	 * @return true if the day is neither a weekend day nor a holiday
+	 */
+	public boolean isWorkingDay(LocalDate date) {
+		return isWorkingDay(date.toEpochDay());
+	}
+
+	/**
+	 * Checks whether an epoch day is a working day.
+	 *
+	 * @param epochDay the epoch day
+	 * @return true if the day is neither a weekend day nor a holiday
+	 */
+	public boolean isWorkingDay(long epochDay) {
+		YearTable table = getTable(epochDay);
+		return table.isWorkingDay((int) (epochDay - table.firstEpochDay));
+	}
+
+	/**
+	 * Checks whether a day is a weekend day.
+	 *
+	 * @param date the day
+	 * @return true if the day of week of the day is a weekend day
+	 */
+	public boolean isWeekend(LocalDate date) {
+		return isWeekend(date.toEpochDay());
+	}
+
+	/**
+	 * Checks whether an epoch day is a weekend day.
+	 *
+	 * @param epochDay the epoch day
+	 * @return true if the day of week of the day is a weekend day
+	 */
+	public boolean isWeekend(long epochDay) {
+		return (weekendMask & 1 << JCalendarMonthGrid.getDayOfWeek(epochDay)) != 0;
+	}
+
+	/**
+	 * Checks whether a day is a holiday.
+	 *
+	 * @param date the day
+	 * @return true if a holiday rule defines the day as a holiday
+	 */
+	public boolean isHoliday(LocalDate date) {
+		return isHoliday(date.toEpochDay());
+	}
+
+	/**
+	 * Checks whether an epoch day is a holiday.
+	 *
+	 * @param epochDay the epoch day
+	 * @return true if a holiday rule defines the day as a holiday
+	 */
+	public boolean isHoliday(long epochDay) {
+		YearTable table = getTable(epochDay);
+		return table.isHoliday((int) (epochDay - table.firstEpochDay));
+	}
+
+	/**
+	 * Counts the working days from a day (inclusive) to another day (exclusive).
+	 *
+	 * @param from the first day
+	 * @param to   the day after the last day
+	 * @return the number of working days, negative if to is before from
+	 */
+	public long countWorkingDays(LocalDate from, LocalDate to) {
+		return countWorkingDays(from.toEpochDay(), to.toEpochDay());
+	}
+
+	/**
+	 * Counts the working days from an epoch day (inclusive) to another epoch day
+	 * (exclusive).
+	 *
+	 * @param fromEpochDay the first epoch day
+	 * @param toEpochDay   the epoch day after the last day
+	 * @return the number of working days, negative if toEpochDay is less than
+	 *         fromEpochDay
+	 */
+	public long countWorkingDays(long fromEpochDay, long toEpochDay) {
+		if (toEpochDay < fromEpochDay)
+			return -countWorkingDays(toEpochDay, fromEpochDay);
+		YearTable fromTable = getTable(fromEpochDay);
+		YearTable toTable = getTable(toEpochDay);
+		long count = toTable.prefix[(int) (toEpochDay - toTable.firstEpochDay)]
+				- fromTable.prefix[(int) (fromEpochDay - fromTable.firstEpochDay)];
+		if (fromTable.year < toTable.year) {
+			YearCounts counts = getYearCounts(fromTable.year, toTable.year - 1);
+			count += counts.getStart(toTable.year) - counts.getStart(fromTable.year);
+		}
+		return count;
+	}
+
+	/**
+	 * Adds working days to a day. Non-working days are skipped, so adding one
+	 * working day to a Friday returns the next Monday in a calendar with Saturday
+	 * and Sunday weekends.
+	 *
+	 * @param date the day
+	 * @param days the number of working days to add, may be negative
+	 * @return the resulting working day, or the day itself if days is 0
+	 */
+	public LocalDate addWorkingDays(LocalDate date, long days) {
+		return LocalDate.ofEpochDay(addWorkingDays(date.toEpochDay(), days));
+	}
+
+	/**
+	 * Adds working days to an epoch day. Non-working days are skipped.
+	 *
+	 * @param epochDay the epoch day
+	 * @param days     the number of working days to add, may be negative
+	 * @return the resulting working epoch day, or the epoch day itself if days is
+	 *         0
+	 */
+	public long addWorkingDays(long epochDay, long days) {
+		if (days == 0L)
+			return epochDay;
+		YearTable table = getTable(epochDay);
+		int dayOfYear = (int) (epochDay - table.firstEpochDay);
+		long rank = days > 0L ? table.prefix[dayOfYear + 1] + days : table.prefix[dayOfYear] + days + 1L;
+		if (rank > 0L && rank <= table.getWorkingDayCount())
+			return table.firstEpochDay + table.findWorkingDay((int) rank);
+		int span = (int) Math.min(1 << 16, Math.abs(rank) / Math.max(1, table.getWorkingDayCount()) + 1L);
+		YearCounts counts = getYearCounts(table.year, table.year);
+		while (true) {
+			long target = counts.getStart(table.year) + rank;
+			if (target <= 0L)
+				counts = getYearCounts(counts.firstYear - span, counts.getLastYear());
+			else if (target > counts.getEnd())
+				counts = getYearCounts(counts.firstYear, counts.getLastYear() + span);
+			else {
+				YearTable result = getTable(counts.findYear(target));
+				return result.firstEpochDay + result.findWorkingDay((int) (target - counts.getStart(result.year)));
+			}
+			span = Math.min(1 << 16, span << 1);
+		}
+	}
+
+	/**
+	 * Gets the first working day on or after a day.
+	 *
+	 * @param date the day
+	 * @return the day itself if it is a working day, or the next working day
+	 */
+	public LocalDate nextWorkingDay(LocalDate date) {
+		long epochDay = date.toEpochDay();
+		return isWorkingDay(epochDay) ? date : LocalDate.ofEpochDay(addWorkingDays(epochDay, 1L));
+	}
+
+	/**
+	 * Gets the last working day on or before a day.
+	 *
+	 * @param date the day
+	 * @return the day itself if it is a working day, or the previous working day
+	 */
+	public LocalDate previousWorkingDay(LocalDate date) {
+		long epochDay = date.toEpochDay();
+		return isWorkingDay(epochDay) ? date : LocalDate.ofEpochDay(addWorkingDays(epochDay, -1L));
+	}
+
+	private YearTable getTable(long epochDay) {
+		YearTable table = lastTable;
+		if (table != null && epochDay >= table.firstEpochDay && epochDay < table.firstEpochDay + table.length)
+			return table;
+		return getTable((int) (JCalendarMonthGrid.getPackedDate(epochDay) >> 9));
+	}
+
+	private YearTable getTable(int year) {
+		YearTable table = lastTable;
+		if (table == null || table.year != year) {
+			table = tables.computeIfAbsent(year, this::createTable);
+			lastTable = table;
+		}
+		return table;
+	}
+
+	private YearCounts getYearCounts(int fromYear, int toYear) {
+		YearCounts counts = yearCounts;
+		if (counts != null && fromYear >= counts.firstYear && toYear <= counts.getLastYear())
+			return counts;
+		int first = counts == null ? fromYear : Math.min(fromYear, counts.firstYear);
+		int last = counts == null ? toYear : Math.max(toYear, counts.getLastYear());
+		long[] cumulative = new long[last - first + 2];
+		for (int year = first; year <= last; year++) {
+			long count = counts != null && year >= counts.firstYear && year <= counts.getLastYear()
+					? counts.getStart(year + 1) - counts.getStart(year)
+					: getTable(year).getWorkingDayCount();
+			cumulative[year - first + 1] = cumulative[year - first] + count;
+		}
+		counts = new YearCounts(first, cumulative);
+		yearCounts = counts;
+		return counts;
+	}
+
+	private YearTable createTable(Integer year) {
+		YearTable table = new YearTable(year, weekendMask);
+		int dayOfWeek = JCalendarMonthGrid.getDayOfWeek(table.firstEpochDay);
+		for (int day = 0; day < table.length; day++) {
+			if ((weekendMask & 1 << dayOfWeek) != 0)
+				table.nonWorking[day >> 6] |= 1L << day;
+			dayOfWeek = dayOfWeek == 6 ? 0 : dayOfWeek + 1;
+		}
+		for (HolidayRule rule : rules)
+			for (int ruleYear = year - 1; ruleYear <= year + 1; ruleYear++) {
+				table.ruleYear = ruleYear;
+				rule.addHolidays(ruleYear, table);
+			}
+		for (int day = 0; day < table.length; day++)
+			table.prefix[day + 1] = table.prefix[day] + (table.isWorkingDay(day) ? 1 : 0);
+		return table;
+	}
+
+	/**
+	 * Creates a rule for a holiday on the same date every year.
+	 *
+	 * @param month      the month (1 - 12)
+	 * @param dayOfMonth the day of month
+	 * @return the rule
+	 */
+	public static HolidayRule fixed(int month, int dayOfMonth) {
+		return new HolidayRule() {
+			@Override
+			public void addHolidays(int year, HolidayCollector collector) {
+				collector.add(month, dayOfMonth);
+			}
+		};
+	}
+
+	/**
+	 * Creates a rule for a holiday on the same date every year that is observed
+	 * on the closest day that is not a weekend day of the calendar when it falls
+	 * on a weekend day, the later one if both are equally close. With Saturday
+	 * and Sunday weekends this is Friday for a Saturday and Monday for a Sunday;
+	 * the observed day may fall in the previous or the next year. Years in which
+	 * the date does not exist, such as February 29 in common years, are skipped.
+	 *
+	 * @param month      the month (1 - 12)
+	 * @param dayOfMonth the day of month
+	 * @return the rule
+	 */
+	public static HolidayRule observed(int month, int dayOfMonth) {
+		return new HolidayRule() {
+			@Override
+			public void addHolidays(int year, HolidayCollector collector) {
+				if (month < 1 || month > 12 || dayOfMonth < 1
+						|| dayOfMonth > YearMonth.of(year, month).lengthOfMonth())
+					return;
+				LocalDate date = LocalDate.of(year, month, dayOfMonth);
+				if (collector.isWeekend(date)) {
+					LocalDate previous = date.minusDays(1L);
+					LocalDate next = date.plusDays(1L);
+					while (collector.isWeekend(previous) && collector.isWeekend(next)) {
+						previous = previous.minusDays(1L);
+						next = next.plusDays(1L);
+					}
+					date = collector.isWeekend(next) ? previous : next;
+				}
+				collector.add(date);
+			}
+		};
+	}
+
+	/**
+	 * Creates a rule for a holiday on the n-th occurrence of a day of week in a
+	 * month, such as the fourth Thursday of November.
+	 *
+	 * @param month     the month (1 - 12)
+	 * @param dayOfWeek the day of week
+	 * @param ordinal   the occurrence (1 - 5), or -1 for the last occurrence
+	 * @return the rule
+	 */
+	public static HolidayRule dayOfWeekInMonth(int month, DayOfWeek dayOfWeek, int ordinal) {
+		return new HolidayRule() {
+			@Override
+			public void addHolidays(int year, HolidayCollector collector) {
+				LocalDate first = LocalDate.of(year, month, 1);
+				int lengthOfMonth = first.lengthOfMonth();
+				int offset = Math.floorMod(dayOfWeek.getValue() - first.getDayOfWeek().getValue(), 7);
+				int dayOfMonth;
+				if (ordinal < 0)
+					dayOfMonth = offset + 1 + (lengthOfMonth - offset - 1) / 7 * 7;
+				else
+					dayOfMonth = offset + 1 + (ordinal - 1) * 7;
+				if (dayOfMonth <= lengthOfMonth)
+					collector.add(month, dayOfMonth);
+			}
+		};
+	}
+
+	/**
+	 * Creates a rule for a holiday at a fixed number of days from Western
+	 * (Gregorian) Easter Sunday, such as Good Friday (-2) or Easter Monday (1).
+	 *
+	 * @param days the number of days from Easter Sunday
+	 * @return the rule
+	 */
+	public static HolidayRule easter(int days) {
+		return new HolidayRule() {
+			@Override
+			public void addHolidays(int year, HolidayCollector collector) {
+				collector.add(getEasterSunday(year).plusDays(days));
+			}
+		};
+	}
+
+	/**
+	 * Creates a rule for a list of individual holidays.
+	 *
+	 * @param dates the holidays
+	 * @return the rule
+	 */
+	public static HolidayRule dates(LocalDate... dates) {
+		LocalDate[] holidays = dates.clone();
+		return new HolidayRule() {
+			@Override
+			public void addHolidays(int year, HolidayCollector collector) {
+				for (LocalDate date : holidays)
+					if (date.getYear() == year)
+						collector.add(date);
+			}
+		};
+	}
+
+	/**
+	 * Gets the date of Western (Gregorian) Easter Sunday.
+	 *
+	 * @param year the year
+	 * @return the date of Easter Sunday
+	 */
+	public static LocalDate getEasterSunday(int year) {
+		int a = Math.floorMod(year, 19);
+		int b = Math.floorDiv(year, 100);
+		int c = Math.floorMod(year, 100);
+		int d = (19 * a + b - b / 4 - (8 * b + 13) / 25 + 15) % 30;
+		int e = (a + 11 * d) / 319;
+		int f = (2 * (b % 4) + 2 * (c / 4) - c % 4 - d + e + 32) % 7;
+		int month = (d - e + f + 90) / 25;
+		int dayOfMonth = (d - e + f + month + 19) % 32;
+		return LocalDate.of(year, month, dayOfMonth);
+	}
+
+	private static final class YearCounts {
+
+		private final int firstYear;
+		private final long[] cumulative;
+
+		private YearCounts(int firstYear, long[] cumulative) {
+			this.firstYear = firstYear;
+			this.cumulative = cumulative;
+		}
+
+		private int getLastYear() {
+			return firstYear + cumulative.length - 2;
+		}
+
+		private long getStart(int year) {
+			return cumulative[year - firstYear];
+		}
+
+		private long getEnd() {
+			return cumulative[cumulative.length - 1];
+		}
+
+		private int findYear(long rank) {
+			int low = 1;
+			int high = cumulative.length - 1;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (cumulative[middle] < rank)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			return firstYear + low - 1;
+		}
+
+	}
+
+	private static final class YearTable implements HolidayCollector {
+
+		private final int year;
+		private final long firstEpochDay;
+		private final int length;
+		private final long[] nonWorking;
+		private final long[] holidays;
+		private final int[] prefix;
+		private final int weekendMask;
+
+		private int ruleYear;
+
+		private YearTable(int year, int weekendMask) {
+			this.year = year;
+			this.weekendMask = weekendMask;
+			LocalDate first = LocalDate.of(year, 1, 1);
+			this.firstEpochDay = first.toEpochDay();
+			this.length = first.lengthOfYear();
+			this.nonWorking = new long[(length + 63) >> 6];
+			this.holidays = new long[nonWorking.length];
+			this.prefix = new int[length + 1];
+		}
+
+		@Override
+		public void add(int month, int dayOfMonth) {
+			if (ruleYear != year || month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > 31)
+				return;
+			LocalDate first = LocalDate.of(year, month, 1);
+			if (dayOfMonth <= first.lengthOfMonth())
+				set(first.getDayOfYear() - 2 + dayOfMonth);
+		}
+
+		@Override
+		public void add(LocalDate date) {
+			if (date.getYear() == year)
+				set(date.getDayOfYear() - 1);
+		}
+
+		@Override
+		public boolean isWeekend(LocalDate date) {
+			return (weekendMask & 1 << (date.getDayOfWeek().getValue() - 1)) != 0;
+		}
+
+		private void set(int day) {
+			holidays[day >> 6] |= 1L << day;
+			nonWorking[day >> 6] |= 1L << day;
+		}
+
+		private boolean isWorkingDay(int day) {
+			return (nonWorking[day >> 6] & 1L << day) == 0L;
+		}
+
+		private boolean isHoliday(int day) {
+			return (holidays[day >> 6] & 1L << day) != 0L;
+		}
+
+		private int getWorkingDayCount() {
+			return prefix[length];
+		}
+
+		private int findWorkingDay(int rank) {
+			int low = 1;
+			int high = length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (prefix[middle] < rank)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			return low - 1;
+		}
+
+	}
+
+	/**
+	 * Interface for rules that define the holidays of a year.
+	 */
+	public static interface HolidayRule {
+
+		/**
+		 * Adds the holidays of a year to the collector. Called for every year
+		 * built by a calendar and for the years before and after it, so that a
+		 * holiday observed in an adjacent year is included.
+		 *
+		 * @param year      the year
+		 * @param collector the collector receiving the holidays
+		 */
+		public void addHolidays(int year, HolidayCollector collector);
+
+	}
+
+	/**
+	 * Interface for receiving the holidays defined by a {@link HolidayRule}.
+	 * Holidays outside of the year being built or invalid dates are ignored.
+	 * Holidays added by month and day of month belong to the year passed to the
+	 * rule.
+	 */
+	public static interface HolidayCollector {
+
+		/**
+		 * Adds a holiday of the year being built.
+		 *
+		 * @param month      the month (1 - 12)
+		 * @param dayOfMonth the day of month
+		 */
+		public void add(int month, int dayOfMonth);
+
+		/**
+		 * Adds a holiday.
+		 *
+		 * @param date the holiday
+		 */
+		public void add(LocalDate date);
+
+		/**
+		 * Checks whether a day is a weekend day of the calendar being built.
+		 *
+		 * @param date the day
+		 * @return true if the day of week of the day is a weekend day
+		 */
+		public boolean isWeekend(LocalDate date);
+
+	}
+
+}
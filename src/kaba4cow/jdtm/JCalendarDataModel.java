@@ -0,0 +1,446 @@
+package kaba4cow.jdtm;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A model of dated entries (events, markers, badges) attached to calendar days.
+ * An entry covers a single day or an interval of days. Entries are kept in
+ * primitive arrays sorted by their first epoch day, which are indexed as an
+ * implicit balanced interval tree: every node of the tree stores the greatest
+ * last day of its subtree, so a query skips every subtree that ends before the
+ * queried interval and visits only the entries that overlap it, in O(log n + k)
+ * for k overlapping entries. The index is rebuilt lazily by the first query
+ * after a change, so adding many entries one at a time does not rebuild it
+ * for every entry. Like other Swing models, the model should be used on the
+ * Event Dispatch Thread.
+ *
+ * @param <T> the type of the entry values
+ */
+public class JCalendarDataModel<T> {
+
+	private final CopyOnWriteArrayList<DataModelListener> listeners;
+
+	private long[] starts;
+	private long[] ends;
+	private Object[] values;
+	private long[] maxEnds;
+	private boolean indexDirty;
+	private int size;
+
+	/**
+	 * Constructs a new empty JCalendarDataModel.
+	 */
+	public JCalendarDataModel() {
+		listeners = new CopyOnWriteArrayList<>();
+		starts = new long[16];
+		ends = new long[16];
+		values = new Object[16];
+		maxEnds = new long[16];
+		size = 0;
+	}
+
+	/**
+	 * Adds an entry for a single day.
+	 *
+	 * @param date  the day of the entry
+	 * @param value the value of the entry
+	 */
+	public void add(LocalDate date, T value) {
+		long epochDay = date.toEpochDay();
+		add(epochDay, epochDay, value);
+	}
+
+	/**
+	 * Adds an entry covering an interval of days.
+	 *
+	 * @param start the first day of the entry
+	 * @param end   the last day of the entry (inclusive)
+	 * @param value the value of the entry
+	 * @throws IllegalArgumentException if end is before start
+	 */
+	public void add(LocalDate start, LocalDate end, T value) {
+		add(start.toEpochDay(), end.toEpochDay(), value);
+	}
+
+	/**
+	 * Adds an entry covering an interval of epoch days.
+	 *
+	 * @param startEpochDay the first epoch day of the entry
+	 * @param endEpochDay   the last epoch day of the entry (inclusive)
+	 * @param value         the value of the entry
+	 * @throws IllegalArgumentException if endEpochDay is less than startEpochDay
+	 */
+	public void add(long startEpochDay, long endEpochDay, T value) {
+		if (endEpochDay < startEpochDay)
+			throw new IllegalArgumentException("End day must be >= start day");
+		ensureCapacity(size + 1);
+		int index = upperBound(startEpochDay);
+		System.arraycopy(starts, index, starts, index + 1, size - index);
+		System.arraycopy(ends, index, ends, index + 1, size - index);
+		System.arraycopy(values, index, values, index + 1, size - index);
+		starts[index] = startEpochDay;
+		ends[index] = endEpochDay;
+		values[index] = value;
+		size++;
+		indexDirty = true;
+		fireDataChanged(startEpochDay, endEpochDay);
+	}
+
+	/**
+	 * Adds entries covering intervals of epoch days. The entries are sorted once
+	 * and merged into the model, and listeners are notified once for the
+	 * interval covering all added entries.
+	 *
+	 * @param startEpochDays the first epoch days of the entries
+	 * @param endEpochDays   the last epoch days of the entries (inclusive)
+	 * @param values         the values of the entries
+	 * @throws IllegalArgumentException if the arrays and the list differ in
+	 *                                  length, or if an end day is less than its
+	 *                                  start day
+	 */
+	public void addAll(long[] startEpochDays, long[] endEpochDays, List<? extends T> values) {
+		int count = startEpochDays.length;
+		if (endEpochDays.length != count || values.size() != count)
+			throw new IllegalArgumentException("Days and values must have the same length");
+		if (count == 0)
+			return;
+		long from = Long.MAX_VALUE;
+		long to = Long.MIN_VALUE;
+		int[] order = new int[count];
+		for (int i = 0; i < count; i++) {
+			if (endEpochDays[i] < startEpochDays[i])
+				throw new IllegalArgumentException("End day must be >= start day");
+			from = Math.min(from, startEpochDays[i]);
+			to = Math.max(to, endEpochDays[i]);
+			order[i] = i;
+		}
+		sortByStart(order, startEpochDays);
+		long[] mergedStarts = new long[Math.max(16, size + count)];
+		long[] mergedEnds = new long[mergedStarts.length];
+		Object[] mergedValues = new Object[mergedStarts.length];
+		int index = 0;
+		int added = 0;
+		int merged = 0;
+		while (index < size || added < count) {
+			if (added == count || index < size && starts[index] <= startEpochDays[order[added]]) {
+				mergedStarts[merged] = starts[index];
+				mergedEnds[merged] = ends[index];
+				mergedValues[merged] = this.values[index];
+				index++;
+			} else {
+				int entry = order[added];
+				mergedStarts[merged] = startEpochDays[entry];
+				mergedEnds[merged] = endEpochDays[entry];
+				mergedValues[merged] = values.get(entry);
+				added++;
+			}
+			merged++;
+		}
+		starts = mergedStarts;
+		ends = mergedEnds;
+		this.values = mergedValues;
+		maxEnds = new long[mergedStarts.length];
+		size = merged;
+		indexDirty = true;
+		fireDataChanged(from, to);
+	}
+
+	/**
+	 * Removes an entry for a single day.
+	 *
+	 * @param date  the day of the entry
+	 * @param value the value of the entry
+	 * @return true if an entry was removed
+	 */
+	public boolean remove(LocalDate date, T value) {
+		long epochDay = date.toEpochDay();
+		return remove(epochDay, epochDay, value);
+	}
+
+	/**
+	 * Removes an entry covering an interval of days.
+	 *
+	 * @param start the first day of the entry
+	 * @param end   the last day of the entry (inclusive)
+	 * @param value the value of the entry
+	 * @return true if an entry was removed
+	 */
+	public boolean remove(LocalDate start, LocalDate end, T value) {
+		return remove(start.toEpochDay(), end.toEpochDay(), value);
+	}
+
+	/**
+	 * Removes an entry covering an interval of epoch days.
+	 *
+	 * @param startEpochDay the first epoch day of the entry
+	 * @param endEpochDay   the last epoch day of the entry (inclusive)
+	 * @param value         the value of the entry
+	 * @return true if an entry was removed
+	 */
+	public boolean remove(long startEpochDay, long endEpochDay, T value) {
+		int to = upperBound(startEpochDay);
+		for (int index = lowerBound(startEpochDay); index < to; index++)
+			if (ends[index] == endEpochDay && Objects.equals(values[index], value)) {
+				size--;
+				System.arraycopy(starts, index + 1, starts, index, size - index);
+				System.arraycopy(ends, index + 1, ends, index, size - index);
+				System.arraycopy(values, index + 1, values, index, size - index);
+				values[size] = null;
+				indexDirty = true;
+				fireDataChanged(startEpochDay, endEpochDay);
+				return true;
+			}
+		return false;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		if (size == 0)
+			return;
+		long from = starts[0];
+		long to = Long.MIN_VALUE;
+		for (int i = 0; i < size; i++)
+			to = Math.max(to, ends[i]);
+		Arrays.fill(values, 0, size, null);
+		size = 0;
+		fireDataChanged(from, to);
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Visits every entry that overlaps an interval of epoch days, in order of
+	 * their first day.
+	 *
+	 * @param fromEpochDay the first epoch day of the interval
+	 * @param toEpochDay   the last epoch day of the interval (inclusive)
+	 * @param visitor      the visitor
+	 * @return the number of visited entries
+	 */
+	public int query(long fromEpochDay, long toEpochDay, EntryVisitor<? super T> visitor) {
+		updateIndex();
+		return query(0, size, fromEpochDay, toEpochDay, visitor);
+	}
+
+	/**
+	 * Counts the entries of consecutive days.
+	 *
+	 * @param fromEpochDay the epoch day of the first element of counts
+	 * @param counts       the array receiving the number of entries of each day
+	 */
+	public void fillCounts(long fromEpochDay, int[] counts) {
+		Arrays.fill(counts, 0);
+		updateIndex();
+		fillCounts(0, size, fromEpochDay, fromEpochDay + counts.length - 1, counts);
+	}
+
+	/**
+	 * Counts the entries of a single day.
+	 *
+	 * @param epochDay the epoch day
+	 * @return the number of entries covering the day
+	 */
+	public int getCount(long epochDay) {
+		updateIndex();
+		return getCount(0, size, epochDay);
+	}
+
+	@SuppressWarnings("unchecked")
+	private int query(int low, int high, long fromEpochDay, long toEpochDay, EntryVisitor<? super T> visitor) {
+		if (low >= high)
+			return 0;
+		int middle = (low + high) >>> 1;
+		if (maxEnds[middle] < fromEpochDay)
+			return 0;
+		int count = query(low, middle, fromEpochDay, toEpochDay, visitor);
+		if (starts[middle] > toEpochDay)
+			return count;
+		if (ends[middle] >= fromEpochDay) {
+			visitor.visit(starts[middle], ends[middle], (T) values[middle]);
+			count++;
+		}
+		return count + query(middle + 1, high, fromEpochDay, toEpochDay, visitor);
+	}
+
+	private void fillCounts(int low, int high, long fromEpochDay, long toEpochDay, int[] counts) {
+		if (low >= high)
+			return;
+		int middle = (low + high) >>> 1;
+		if (maxEnds[middle] < fromEpochDay)
+			return;
+		fillCounts(low, middle, fromEpochDay, toEpochDay, counts);
+		if (starts[middle] > toEpochDay)
+			return;
+		if (ends[middle] >= fromEpochDay) {
+			long last = Math.min(ends[middle], toEpochDay);
+			for (long day = Math.max(starts[middle], fromEpochDay); day <= last; day++)
+				counts[(int) (day - fromEpochDay)]++;
+		}
+		fillCounts(middle + 1, high, fromEpochDay, toEpochDay, counts);
+	}
+
+	private int getCount(int low, int high, long epochDay) {
+		if (low >= high)
+			return 0;
+		int middle = (low + high) >>> 1;
+		if (maxEnds[middle] < epochDay)
+			return 0;
+		int count = getCount(low, middle, epochDay);
+		if (starts[middle] > epochDay)
+			return count;
+		if (ends[middle] >= epochDay)
+			count++;
+		return count + getCount(middle + 1, high, epochDay);
+	}
+
+	private void updateIndex() {
+		if (indexDirty) {
+			buildIndex(0, size);
+			indexDirty = false;
+		}
+	}
+
+	private long buildIndex(int low, int high) {
+		if (low >= high)
+			return Long.MIN_VALUE;
+		int middle = (low + high) >>> 1;
+		long maxEnd = Math.max(ends[middle], Math.max(buildIndex(low, middle), buildIndex(middle + 1, high)));
+		maxEnds[middle] = maxEnd;
+		return maxEnd;
+	}
+
+	/**
+	 * Sorts indices by their start days with a stable bottom-up merge sort, so
+	 * entries with the same start day keep their order.
+	 */
+	private static void sortByStart(int[] order, long[] startEpochDays) {
+		int[] source = order;
+		int[] target = new int[order.length];
+		for (int width = 1; width < order.length; width <<= 1) {
+			for (int low = 0; low < order.length; low += width << 1) {
+				int middle = Math.min(low + width, order.length);
+				int high = Math.min(middle + width, order.length);
+				int left = low;
+				int right = middle;
+				for (int i = low; i < high; i++)
+					if (right == high || left < middle && startEpochDays[source[left]] <= startEpochDays[source[right]])
+						target[i] = source[left++];
+					else
+						target[i] = source[right++];
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != order)
+			System.arraycopy(source, 0, order, 0, order.length);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= starts.length)
+			return;
+		capacity = Math.max(capacity, starts.length + (starts.length >> 1));
+		starts = Arrays.copyOf(starts, capacity);
+		ends = Arrays.copyOf(ends, capacity);
+		values = Arrays.copyOf(values, capacity);
+		maxEnds = Arrays.copyOf(maxEnds, capacity);
+	}
+
+	private int lowerBound(long epochDay) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (starts[middle] < epochDay)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	private int upperBound(long epochDay) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (starts[middle] <= epochDay)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Adds a listener to receive notifications when entries are added or removed.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addDataModelListener(DataModelListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addDataModelListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeDataModelListener(DataModelListener listener) {
+		listeners.remove(listener);
+	}
+
+	private void fireDataChanged(long fromEpochDay, long toEpochDay) {
+		for (DataModelListener listener : listeners)
+			listener.onDataChanged(this, fromEpochDay, toEpochDay);
+	}
+
+	/**
+	 * Visitor interface for entries returned by a query.
+	 *
+	 * @param <T> the type of the entry values
+	 */
+	public static interface EntryVisitor<T> {
+
+		/**
+		 * Called for every entry returned by a query.
+		 *
+		 * @param startEpochDay the first epoch day of the entry
+		 * @param endEpochDay   the last epoch day of the entry (inclusive)
+		 * @param value         the value of the entry
+		 */
+		public void visit(long startEpochDay, long endEpochDay, T value);
+
+	}
+
+	/**
+	 * Listener interface for receiving notifications when entries of a
+	 * JCalendarDataModel are added or removed.
+	 */
+	public static interface DataModelListener {
+
+		/**
+		 * Called when entries covering an interval of days are added or removed.
+		 *
+		 * @param model        The model that changed.
+		 * @param fromEpochDay The first affected epoch day.
+		 * @param toEpochDay   The last affected epoch day (inclusive).
+		 */
+		public void onDataChanged(JCalendarDataModel<?> model, long fromEpochDay, long toEpochDay);
+
+	}
+
+}
@@ -0,0 +1,756 @@
+package kaba4cow.jdtm;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.SystemColor;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.swing.BorderFactory;
+import javax.swing.CellRendererPane;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import kaba4cow.jdtm.JCalendarPanel.CalendarListener;
+
+/**
+ * A single lightweight component that paints the day names and the 6x7 grid of
+ * days of a calendar month. Cells are painted by a pluggable
+ * {@link DayRenderer} and selected by clicking them.
+ */
+public class JCalendarDayGrid extends JComponent implements JCalendarDayView {
+
+	private static final long serialVersionUID = 1L;
+
+	private final JListenerDelivery<CalendarListener, LocalDate> delivery;
+
+	private final JCalendarMonthGrid monthGrid;
+	private final CellRendererPane rendererPane;
+	private final JLabel headerLabel;
+	private final Rectangle clipBounds;
+	private final int[] entryCounts;
+	private final JCalendarDataModel.DataModelListener dataModelListener;
+	private final Object[] cellDecorations;
+	private final boolean[] loadedCells;
+	private final JCalendarDecorations.DecorationListener decorationListener;
+	private final JCalendarSelectionModel.SelectionListener selectionListener;
+
+	private DayRenderer renderer;
+	private JDateTimeNames names;
+	private JCalendarDataModel<?> dataModel;
+	private JCalendarDecorations<?> decorations;
+	private JCalendarSelectionModel selectionModel;
+	private JBusinessCalendar businessCalendar;
+	private Clock clock;
+	private CalendarListener selectionHandler;
+
+	/**
+	 * Constructs a new JCalendarDayGrid with the default day renderer. The current
+	 * date is selected.
+	 */
+	public JCalendarDayGrid() {
+		super();
+		delivery = new JListenerDelivery<>(this, new JListenerDelivery.Notifier<CalendarListener, LocalDate>() {
+			@Override
+			public void deliver(CalendarListener listener, LocalDate value) {
+				listener.onDateSelected(value);
+			}
+		});
+		monthGrid = new JCalendarMonthGrid();
+		clipBounds = new Rectangle();
+		entryCounts = new int[monthGrid.getCellCount()];
+		cellDecorations = new Object[monthGrid.getCellCount()];
+		loadedCells = new boolean[monthGrid.getCellCount()];
+		decorationListener = new JCalendarDecorations.DecorationListener() {
+			@Override
+			public void onDecorationsLoaded(JCalendarDecorations<?> decorations, YearMonth month) {
+				if (isMonthVisible(month)) {
+					updateDecorations();
+					repaintMonth(month);
+				}
+			}
+
+			@Override
+			public void onDecorationsInvalidated(JCalendarDecorations<?> decorations, YearMonth month) {
+				if (isMonthVisible(month)) {
+					prefetchDecorations();
+					updateDecorations();
+					repaintMonth(month);
+				}
+			}
+		};
+		dataModelListener = new JCalendarDataModel.DataModelListener() {
+			@Override
+			public void onDataChanged(JCalendarDataModel<?> model, long fromEpochDay, long toEpochDay) {
+				long firstEpochDay = monthGrid.getEpochDay(0);
+				long lastEpochDay = monthGrid.getEpochDay(monthGrid.getCellCount() - 1);
+				if (toEpochDay < firstEpochDay || fromEpochDay > lastEpochDay)
+					return;
+				updateEntryCounts();
+				repaintDays(fromEpochDay, toEpochDay);
+			}
+		};
+		selectionListener = new JCalendarSelectionModel.SelectionListener() {
+			@Override
+			public void onSelectionChanged(JCalendarSelectionModel model, long fromEpochDay, long toEpochDay) {
+				repaintDays(fromEpochDay, toEpochDay);
+			}
+		};
+
+		rendererPane = new CellRendererPane();
+		add(rendererPane);
+
+		headerLabel = new JLabel();
+		headerLabel.setHorizontalAlignment(JLabel.CENTER);
+		headerLabel.setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, SystemColor.textText));
+
+		renderer = new DefaultDayRenderer();
+		names = JDateTimeNames.get(getLocale());
+		monthGrid.setFirstDayOfWeek(names.getFirstDayIndex());
+
+		setOpaque(true);
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent event) {
+				if (event.getButton() != MouseEvent.BUTTON1)
+					return;
+				int cell = getCellAt(event.getX(), event.getY());
+				if (cell < 0)
+					return;
+				long epochDay = monthGrid.getEpochDay(cell);
+				if (selectionModel != null)
+					selectionModel.select(epochDay, event.isControlDown() || event.isMetaDown(), event.isShiftDown());
+				LocalDate date = LocalDate.ofEpochDay(epochDay);
+				if (selectionHandler == null) {
+					selectDate(date);
+					return;
+				}
+				boolean update = epochDay != monthGrid.getSelectedEpochDay();
+				selectionHandler.onDateSelected(date);
+				if (update)
+					delivery.fire(date);
+			}
+		});
+
+		JTickScheduler.getInstance().subscribe(this, new JTickScheduler.TickListener() {
+			@Override
+			public void onTick() {
+				select(getSelectedDate(), getToday());
+			}
+		});
+
+		selectDate(getToday());
+	}
+
+	/**
+	 * Selects the specified date and repaints the cells that changed. This method
+	 * will notify the listeners about the change.
+	 *
+	 * @param date The date to select.
+	 */
+	public void selectDate(LocalDate date) {
+		long start = JDateTimeMetrics.start();
+		boolean update = date.toEpochDay() != monthGrid.getSelectedEpochDay();
+		int cellsRestyled = select(date, getToday());
+		JDateTimeMetrics.recordSelectDate(this, start, cellsRestyled);
+		if (update)
+			delivery.fire(date);
+	}
+
+	/**
+	 * Sets the handler that selects a clicked day instead of
+	 * {@link #selectDate(LocalDate)}. A panel owning this grid selects the day
+	 * itself, synchronously and independent of the listener delivery of this
+	 * grid; the listeners of this grid are still notified of the click.
+	 *
+	 * @param handler The handler, or null to select clicked days with
+	 *                selectDate.
+	 */
+	void setSelectionHandler(CalendarListener handler) {
+		this.selectionHandler = handler;
+	}
+
+	int select(LocalDate date, LocalDate today) {
+		int cellsRestyled = 0;
+		switch (monthGrid.select(date, today)) {
+		case JCalendarMonthGrid.LAYOUT_CHANGED:
+			cellsRestyled = monthGrid.getCellCount();
+			updateEntryCounts();
+			prefetchDecorations();
+			updateDecorations();
+			repaint();
+			break;
+		case JCalendarMonthGrid.CELLS_CHANGED:
+			cellsRestyled = monthGrid.getChangedCount();
+			for (int i = 0; i < cellsRestyled; i++)
+				repaintCell(monthGrid.getChangedCell(i));
+			break;
+		}
+		return cellsRestyled;
+	}
+
+	private LocalDate getToday() {
+		return JTickScheduler.getInstance().getSnapshot(clock).getDate();
+	}
+
+	/**
+	 * Sets the clock that defines the current date. The current day marker moves
+	 * when the date of the clock changes.
+	 *
+	 * @param clock The clock, or null to use the clock of the
+	 *              {@link JTickScheduler}.
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+		select(getSelectedDate(), getToday());
+	}
+
+	/**
+	 * Gets the clock that defines the current date.
+	 *
+	 * @return The clock, or null if the clock of the {@link JTickScheduler} is
+	 *         used.
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Gets the selected date.
+	 *
+	 * @return The selected date.
+	 */
+	public LocalDate getSelectedDate() {
+		return LocalDate.ofEpochDay(monthGrid.getSelectedEpochDay());
+	}
+
+	/**
+	 * Adds a listener to receive notifications when selected date is changed.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addListener(CalendarListener listener) {
+		delivery.addListener(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(CalendarListener listener) {
+		delivery.removeListener(listener);
+	}
+
+	/**
+	 * Gets the delivery that notifies the listeners, which can be configured to
+	 * coalesce bursts of selections or to notify the listeners asynchronously.
+	 *
+	 * @return The listener delivery.
+	 */
+	public JListenerDelivery<CalendarListener, LocalDate> getListenerDelivery() {
+		return delivery;
+	}
+
+	/**
+	 * Sets the model of the entries displayed on the days. Only the cells
+	 * affected by changes of the model are repainted.
+	 *
+	 * @param dataModel The data model, or null to display no entries.
+	 */
+	public void setDataModel(JCalendarDataModel<?> dataModel) {
+		if (this.dataModel != null)
+			this.dataModel.removeDataModelListener(dataModelListener);
+		this.dataModel = dataModel;
+		if (dataModel != null)
+			dataModel.addDataModelListener(dataModelListener);
+		updateEntryCounts();
+		repaint();
+	}
+
+	/**
+	 * Gets the model of the entries displayed on the days.
+	 *
+	 * @return The data model, or null if no entries are displayed.
+	 */
+	public JCalendarDataModel<?> getDataModel() {
+		return dataModel;
+	}
+
+	/**
+	 * Sets the business calendar that defines the non-working days, which are
+	 * painted with a distinct style.
+	 *
+	 * @param businessCalendar The business calendar, or null to treat every day
+	 *                         as a working day.
+	 */
+	public void setBusinessCalendar(JBusinessCalendar businessCalendar) {
+		this.businessCalendar = businessCalendar;
+		repaint();
+	}
+
+	/**
+	 * Gets the business calendar that defines the non-working days.
+	 *
+	 * @return The business calendar, or null if every day is a working day.
+	 */
+	public JBusinessCalendar getBusinessCalendar() {
+		return businessCalendar;
+	}
+
+	@Override
+	public boolean isWorkingDay(long epochDay) {
+		return businessCalendar == null || businessCalendar.isWorkingDay(epochDay);
+	}
+
+	/**
+	 * Gets the number of data model entries of a day. Visible days are read from
+	 * a cache that is updated when the month or the model changes.
+	 *
+	 * @param epochDay The epoch day.
+	 * @return The number of entries of the day.
+	 */
+	@Override
+	public int getEntryCount(long epochDay) {
+		int cell = monthGrid.indexOf(epochDay);
+		if (cell >= 0)
+			return entryCounts[cell];
+		return dataModel == null ? 0 : dataModel.getCount(epochDay);
+	}
+
+	private void updateEntryCounts() {
+		if (dataModel == null)
+			Arrays.fill(entryCounts, 0);
+		else
+			dataModel.fillCounts(monthGrid.getEpochDay(0), entryCounts);
+	}
+
+	/**
+	 * Sets the model of the selected days. When a selection model is set, the
+	 * cells of the days it contains are painted as selected, and clicking a cell
+	 * updates the model: Ctrl toggles the day and Shift selects the interval from
+	 * the anchor of the model. The selected date remains the focused day.
+	 *
+	 * @param selectionModel The selection model, or null to select only the
+	 *                       selected date.
+	 */
+	public void setSelectionModel(JCalendarSelectionModel selectionModel) {
+		if (this.selectionModel != null)
+			this.selectionModel.removeSelectionListener(selectionListener);
+		this.selectionModel = selectionModel;
+		if (selectionModel != null)
+			selectionModel.addSelectionListener(selectionListener);
+		repaint();
+	}
+
+	/**
+	 * Gets the model of the selected days.
+	 *
+	 * @return The selection model, or null if only the selected date is selected.
+	 */
+	public JCalendarSelectionModel getSelectionModel() {
+		return selectionModel;
+	}
+
+	private boolean isSelected(int cell) {
+		if (selectionModel == null)
+			return monthGrid.isSelected(cell);
+		return selectionModel.contains(monthGrid.getEpochDay(cell));
+	}
+
+	/**
+	 * Sets the decorations displayed on the days. The decorations of the
+	 * displayed month and its adjacent months are loaded asynchronously when the
+	 * month changes; cells are painted without decorations until they arrive.
+	 *
+	 * @param decorations The decorations, or null to display no decorations.
+	 */
+	public void setDecorations(JCalendarDecorations<?> decorations) {
+		if (this.decorations != null)
+			this.decorations.removeDecorationListener(decorationListener);
+		this.decorations = decorations;
+		if (decorations != null)
+			decorations.addDecorationListener(decorationListener);
+		prefetchDecorations();
+		updateDecorations();
+		repaint();
+	}
+
+	/**
+	 * Gets the decorations displayed on the days.
+	 *
+	 * @return The decorations, or null if no decorations are displayed.
+	 */
+	public JCalendarDecorations<?> getDecorations() {
+		return decorations;
+	}
+
+	/**
+	 * Gets the decoration of a visible day.
+	 *
+	 * @param epochDay The epoch day.
+	 * @return The decoration, or null if the day has no decoration, is not
+	 *         visible or its decorations are not loaded yet.
+	 */
+	@Override
+	public Object getDecoration(long epochDay) {
+		int cell = monthGrid.indexOf(epochDay);
+		return cell < 0 ? null : cellDecorations[cell];
+	}
+
+	/**
+	 * Checks whether the decorations of a visible day are loaded.
+	 *
+	 * @param epochDay The epoch day.
+	 * @return true if the decorations of the day are loaded, false if they are
+	 *         still loading or the day is not visible.
+	 */
+	@Override
+	public boolean isDecorationLoaded(long epochDay) {
+		int cell = monthGrid.indexOf(epochDay);
+		return cell >= 0 && loadedCells[cell];
+	}
+
+	/**
+	 * Starts loading the decorations of the displayed month and its adjacent
+	 * months. Called only when the displayed month or the decorations change, or
+	 * when displayed decorations are invalidated; a finished load never starts
+	 * another one, so grids sharing the decorations cannot evict each other's
+	 * months in a loop.
+	 */
+	private void prefetchDecorations() {
+		if (decorations != null)
+			decorations.prefetch(YearMonth.of(monthGrid.getYear(), monthGrid.getMonth()));
+	}
+
+	private void updateDecorations() {
+		if (decorations == null) {
+			Arrays.fill(cellDecorations, null);
+			Arrays.fill(loadedCells, false);
+			return;
+		}
+		YearMonth month = YearMonth.of(monthGrid.getYear(), monthGrid.getMonth());
+		Object[] previous = decorations.getCached(month.minusMonths(1));
+		Object[] current = decorations.getCached(month);
+		Object[] next = decorations.getCached(month.plusMonths(1));
+		for (int cell = 0; cell < cellDecorations.length; cell++) {
+			long epochDay = monthGrid.getEpochDay(cell);
+			Object[] days = epochDay < monthGrid.getFirstEpochDay() ? previous
+					: epochDay > monthGrid.getLastEpochDay() ? next : current;
+			loadedCells[cell] = days != null;
+			cellDecorations[cell] = days == null ? null : days[monthGrid.getDayOfMonth(cell) - 1];
+		}
+	}
+
+	private boolean isMonthVisible(YearMonth month) {
+		return month == null || month.atEndOfMonth().toEpochDay() >= monthGrid.getEpochDay(0)
+				&& month.atDay(1).toEpochDay() <= monthGrid.getEpochDay(monthGrid.getCellCount() - 1);
+	}
+
+	private void repaintMonth(YearMonth month) {
+		if (month == null)
+			repaint();
+		else
+			repaintDays(month.atDay(1).toEpochDay(), month.atEndOfMonth().toEpochDay());
+	}
+
+	private void repaintDays(long fromEpochDay, long toEpochDay) {
+		long firstEpochDay = monthGrid.getEpochDay(0);
+		long lastEpochDay = monthGrid.getEpochDay(monthGrid.getCellCount() - 1);
+		if (toEpochDay < firstEpochDay || fromEpochDay > lastEpochDay)
+			return;
+		long last = Math.min(toEpochDay, lastEpochDay);
+		for (long epochDay = Math.max(fromEpochDay, firstEpochDay); epochDay <= last; epochDay++)
+			repaintCell(monthGrid.indexOf(epochDay));
+	}
+
+	/**
+	 * Sets the renderer used to paint the day cells.
+	 *
+	 * @param renderer The day renderer.
+	 */
+	public void setDayRenderer(DayRenderer renderer) {
+		if (renderer == null)
+			throw new IllegalArgumentException("Day renderer must not be null");
+		this.renderer = renderer;
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Gets the renderer used to paint the day cells.
+	 *
+	 * @return The day renderer.
+	 */
+	public DayRenderer getDayRenderer() {
+		return renderer;
+	}
+
+	/**
+	 * Gets the index of the day cell at the specified location.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The cell index, or -1 if there is no day cell at the location.
+	 */
+	public int getCellAt(int x, int y) {
+		Insets insets = getInsets();
+		int width = getWidth() - insets.left - insets.right;
+		int height = getHeight() - insets.top - insets.bottom;
+		if (width <= 0 || height <= 0)
+			return -1;
+		int column = (x - insets.left) * getColumnCount() / width;
+		int row = (y - insets.top) * getRowCount() / height - 1;
+		if (x < insets.left || column >= getColumnCount() || row < 0 || row >= getRowCount() - 1)
+			return -1;
+		return row * getColumnCount() + column;
+	}
+
+	/**
+	 * Gets the epoch day displayed in the specified cell.
+	 *
+	 * @param cell The cell index.
+	 * @return The epoch day.
+	 */
+	public long getEpochDay(int cell) {
+		return monthGrid.getEpochDay(cell);
+	}
+
+	private void repaintCell(int cell) {
+		Insets insets = getInsets();
+		int width = getWidth() - insets.left - insets.right;
+		int height = getHeight() - insets.top - insets.bottom;
+		int column = cell % getColumnCount();
+		int row = cell / getColumnCount() + 1;
+		int x = insets.left + column * width / getColumnCount();
+		int y = insets.top + row * height / getRowCount();
+		repaint(x, y, insets.left + (column + 1) * width / getColumnCount() - x,
+				insets.top + (row + 1) * height / getRowCount() - y);
+	}
+
+	private int getColumnCount() {
+		return JDateTimeUtils.getNumberOfDays();
+	}
+
+	private int getRowCount() {
+		return JDateTimeUtils.getNumberOfWeeks() + 1;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		long start = JDateTimeMetrics.start();
+		Insets insets = getInsets();
+		int width = getWidth() - insets.left - insets.right;
+		int height = getHeight() - insets.top - insets.bottom;
+		if (isOpaque()) {
+			g.setColor(getBackground());
+			g.fillRect(0, 0, getWidth(), getHeight());
+		}
+		g.getClipBounds(clipBounds);
+		int columns = getColumnCount();
+		int rows = getRowCount();
+		for (int row = 0; row < rows; row++) {
+			int y = insets.top + row * height / rows;
+			int cellHeight = insets.top + (row + 1) * height / rows - y;
+			if (y >= clipBounds.y + clipBounds.height || y + cellHeight <= clipBounds.y)
+				continue;
+			for (int column = 0; column < columns; column++) {
+				int x = insets.left + column * width / columns;
+				int cellWidth = insets.left + (column + 1) * width / columns - x;
+				if (x >= clipBounds.x + clipBounds.width || x + cellWidth <= clipBounds.x)
+					continue;
+				Component component;
+				if (row == 0) {
+					headerLabel.setText(names.getColumnDayName(column));
+					component = headerLabel;
+				} else {
+					int cell = (row - 1) * columns + column;
+					component = renderer.getDayRendererComponent(this, monthGrid.getEpochDay(cell),
+							monthGrid.getDayOfMonth(cell), isSelected(cell), monthGrid.isCurrentDay(cell),
+							monthGrid.isSelectedMonth(cell));
+				}
+				rendererPane.paintComponent(g, component, this, x, y, cellWidth, cellHeight, true);
+			}
+		}
+		rendererPane.removeAll();
+		JDateTimeMetrics.recordPaint(this, start);
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		if (isPreferredSizeSet())
+			return super.getPreferredSize();
+		int cellWidth = 0;
+		int cellHeight = 0;
+		for (int column = 0; column < getColumnCount(); column++) {
+			headerLabel.setText(names.getColumnDayName(column));
+			Dimension size = headerLabel.getPreferredSize();
+			cellWidth = Math.max(cellWidth, size.width);
+			cellHeight = Math.max(cellHeight, size.height);
+		}
+		Dimension size = renderer
+				.getDayRendererComponent(this, monthGrid.getEpochDay(0), 30, true, true, true).getPreferredSize();
+		cellWidth = Math.max(cellWidth, size.width);
+		cellHeight = Math.max(cellHeight, size.height);
+		Insets insets = getInsets();
+		return new Dimension(insets.left + insets.right + cellWidth * getColumnCount(),
+				insets.top + insets.bottom + cellHeight * getRowCount());
+	}
+
+	/**
+	 * Sets the locale of the day names and the first day of the week.
+	 *
+	 * @param locale The locale.
+	 */
+	@Override
+	public void setLocale(Locale locale) {
+		super.setLocale(locale);
+		if (monthGrid == null)
+			return;
+		names = JDateTimeNames.get(locale);
+		if (names.getFirstDayIndex() != monthGrid.getFirstDayOfWeek()) {
+			monthGrid.setFirstDayOfWeek(names.getFirstDayIndex());
+			select(getSelectedDate(), getToday());
+		}
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Gets the names of the locale of this grid.
+	 *
+	 * @return The names.
+	 */
+	public JDateTimeNames getNames() {
+		return names;
+	}
+
+	@Override
+	public void updateUI() {
+		super.updateUI();
+		if (headerLabel != null)
+			SwingUtilities.updateComponentTreeUI(headerLabel);
+		if (renderer instanceof Component)
+			SwingUtilities.updateComponentTreeUI((Component) renderer);
+	}
+
+	/**
+	 * Interface for components that paint the day cells of a JCalendarDayGrid or
+	 * another {@link JCalendarDayView}, similar to a table cell renderer.
+	 */
+	public static interface DayRenderer {
+
+		/**
+		 * Returns the component used to paint a day cell.
+		 *
+		 * @param view            The view that is being painted.
+		 * @param epochDay        The epoch day of the cell.
+		 * @param dayOfMonth      The day of month of the cell.
+		 * @param isSelected      Whether the day is selected.
+		 * @param isCurrentDay    Whether the day is today.
+		 * @param isSelectedMonth Whether the day belongs to the displayed month.
+		 * @return The component used to paint the cell.
+		 */
+		public Component getDayRendererComponent(JCalendarDayView view, long epochDay, int dayOfMonth,
+				boolean isSelected, boolean isCurrentDay, boolean isSelectedMonth);
+
+	}
+
+	/**
+	 * The default day renderer, which paints the day of month using the shared
+	 * {@link JCalendarDayStyle} styles, with a distinct style for non-working
+	 * days, and a dot below days that have data model entries or decorations.
+	 */
+	public static class DefaultDayRenderer extends JLabel implements DayRenderer {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final String[] dayNumbers = new String[32];
+		static {
+			for (int i = 1; i < dayNumbers.length; i++)
+				dayNumbers[i] = Integer.toString(i);
+		}
+
+		private JCalendarDayStyle style;
+		private boolean marked;
+
+		/**
+		 * Constructs a new DefaultDayRenderer.
+		 */
+		public DefaultDayRenderer() {
+			super();
+			setHorizontalAlignment(CENTER);
+			setVerticalAlignment(CENTER);
+		}
+
+		@Override
+		public Component getDayRendererComponent(JCalendarDayView view, long epochDay, int dayOfMonth,
+				boolean isSelected, boolean isCurrentDay, boolean isSelectedMonth) {
+			JCalendarDayStyle style = JCalendarDayStyle.get(isSelected, isCurrentDay, isSelectedMonth,
+					!view.isWorkingDay(epochDay));
+			if (style != this.style) {
+				this.style = style;
+				style.apply(this);
+			}
+			setText(dayNumbers[dayOfMonth]);
+			marked = view.getEntryCount(epochDay) > 0 || view.getDecoration(epochDay) != null;
+			return this;
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			super.paintComponent(g);
+			if (marked) {
+				g.setColor(getForeground());
+				g.fillOval(getWidth() / 2 - 1, getHeight() - 4, 3, 3);
+			}
+		}
+
+		@Override
+		public void updateUI() {
+			super.updateUI();
+			style = null;
+		}
+
+		@Override
+		public void invalidate() {
+		}
+
+		@Override
+		public void validate() {
+		}
+
+		@Override
+		public void revalidate() {
+		}
+
+		@Override
+		public void repaint(long tm, int x, int y, int width, int height) {
+		}
+
+		@Override
+		public void repaint(Rectangle r) {
+		}
+
+		@Override
+		public void repaint() {
+		}
+
+		@Override
+		protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+			if ("text".equals(propertyName) || "font".equals(propertyName))
+				super.firePropertyChange(propertyName, oldValue, newValue);
+		}
+
+	}
+
+}
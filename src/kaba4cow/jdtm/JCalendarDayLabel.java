@@ -4,63 +4,66 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.LocalDate;
 
-import javax.swing.BorderFactory;
 import javax.swing.JLabel;
-import javax.swing.UIManager;
 
 public class JCalendarDayLabel extends JLabel {
 
 	private static final long serialVersionUID = 1L;
 
-	private LocalDate dayDate;
+	private static final String[] dayNumbers = new String[32];
+	static {
+		for (int i = 1; i < dayNumbers.length; i++)
+			dayNumbers[i] = Integer.toString(i);
+	}
+
+	private final JCalendarPanel calendarPanel;
+
+	private long dayEpochDay;
+	private JCalendarDayStyle style;
 
 	public JCalendarDayLabel(JCalendarPanel calendarPanel) {
 		super();
+		this.calendarPanel = calendarPanel;
 		setHorizontalAlignment(CENTER);
 		setVerticalAlignment(CENTER);
 		addMouseListener(new MouseAdapter() {
 			@Override
 			public void mousePressed(MouseEvent event) {
 				if (event.getButton() == MouseEvent.BUTTON1)
-					calendarPanel.selectDate(dayDate);
+					calendarPanel.selectDate(LocalDate.ofEpochDay(dayEpochDay));
 			}
 		});
 	}
 
 	public void selectDate(LocalDate selectedDate, LocalDate currentDate) {
-		dayDate = currentDate;
-		boolean isCurrentDay = dayDate.equals(LocalDate.now());
-		boolean isSelectedMonth = dayDate.getMonthValue() == selectedDate.getMonthValue();
-		if (dayDate.equals(selectedDate))
-			select(isCurrentDay, isSelectedMonth);
-		else
-			deselect(isCurrentDay, isSelectedMonth);
-		setText(Integer.toString(dayDate.getDayOfMonth()));
+		selectDate(selectedDate, currentDate,
+				JTickScheduler.getInstance().getSnapshot(calendarPanel.getClock()).getDate());
+	}
+
+	public void selectDate(LocalDate selectedDate, LocalDate currentDate, LocalDate today) {
+		boolean isCurrentDay = currentDate.equals(today);
+		boolean isSelectedMonth = currentDate.getMonthValue() == selectedDate.getMonthValue();
+		setDay(currentDate.toEpochDay(), currentDate.getDayOfMonth(),
+				JCalendarDayStyle.get(currentDate.equals(selectedDate), isCurrentDay, isSelectedMonth));
+	}
+
+	void setDay(long epochDay, int dayOfMonth, JCalendarDayStyle style) {
+		dayEpochDay = epochDay;
+		setStyle(style);
+		setText(dayNumbers[dayOfMonth]);
 	}
 
-	private void select(boolean isCurrentDay, boolean isSelectedMonth) {
-		if (isCurrentDay || isSelectedMonth) {
-			setOpaque(true);
-			setBorder(BorderFactory.createDashedBorder(UIManager.getColor("textHighlightText"), 1f, 1f));
-			setBackground(UIManager.getColor("activeCaption"));
-			setForeground(UIManager.getColor("textHighlightText"));
-		} else {
-			setOpaque(false);
-			setBorder(BorderFactory.createLineBorder(UIManager.getColor("activeCaptionBorder"), 1));
-			setForeground(UIManager.getColor("textText"));
-		}
+	private void setStyle(JCalendarDayStyle style) {
+		if (style == this.style)
+			return;
+		this.style = style;
+		style.apply(this);
 	}
 
-	private void deselect(boolean isCurrentDay, boolean isSelectedMonth) {
-		if (isCurrentDay) {
-			setOpaque(false);
-			setBorder(BorderFactory.createLineBorder(UIManager.getColor("activeCaption"), 1));
-			setForeground(UIManager.getColor("textText"));
-		} else {
-			setOpaque(false);
-			setBorder(null);
-			setForeground(isSelectedMonth ? UIManager.getColor("textText") : UIManager.getColor("textInactiveText"));
-		}
+	@Override
+	public void updateUI() {
+		super.updateUI();
+		style = null;
 	}
 
 }
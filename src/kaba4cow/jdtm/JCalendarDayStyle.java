@@ -0,0 +1,187 @@
+package kaba4cow.jdtm;
+
+import java.awt.Color;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+import javax.swing.UIManager;
+import javax.swing.border.Border;
+
+/**
+ * An immutable visual style of a calendar day cell. The styles for every
+ * combination of selected, current, in-month and non-working states are built
+ * once per Look-and-Feel and shared by all calendar cells.
+ */
+public final class JCalendarDayStyle {
+
+	private static final int NON_WORKING_DAY = 8;
+	private static final int SELECTED = 4;
+	private static final int CURRENT_DAY = 2;
+	private static final int SELECTED_MONTH = 1;
+
+	private static JCalendarDayStyle[] styles;
+
+	static {
+		UIManager.addPropertyChangeListener(new PropertyChangeListener() {
+			@Override
+			public void propertyChange(PropertyChangeEvent event) {
+				if ("lookAndFeel".equals(event.getPropertyName()))
+					styles = null;
+			}
+		});
+	}
+
+	private final boolean opaque;
+	private final Border border;
+	private final Color background;
+	private final Color foreground;
+
+	private JCalendarDayStyle(boolean opaque, Border border, Color background, Color foreground) {
+		this.opaque = opaque;
+		this.border = border;
+		this.background = background;
+		this.foreground = foreground;
+	}
+
+	/**
+	 * Gets the shared style for a calendar day cell in the specified state.
+	 *
+	 * @param isSelected      whether the day is the selected date
+	 * @param isCurrentDay    whether the day is today
+	 * @param isSelectedMonth whether the day belongs to the displayed month
+	 * @return the shared style
+	 */
+	public static JCalendarDayStyle get(boolean isSelected, boolean isCurrentDay, boolean isSelectedMonth) {
+		return get(isSelected, isCurrentDay, isSelectedMonth, false);
+	}
+
+	/**
+	 * Gets the shared style for a calendar day cell in the specified state.
+	 * Non-working days that are not selected are painted with the
+	 * "Calendar.nonWorkingDayForeground" color of the Look-and-Feel, or a red
+	 * color if it is not defined.
+	 *
+	 * @param isSelected      whether the day is the selected date
+	 * @param isCurrentDay    whether the day is today
+	 * @param isSelectedMonth whether the day belongs to the displayed month
+	 * @param isNonWorkingDay whether the day is a weekend day or a holiday
+	 * @return the shared style
+	 */
+	public static JCalendarDayStyle get(boolean isSelected, boolean isCurrentDay, boolean isSelectedMonth,
+			boolean isNonWorkingDay) {
+		JCalendarDayStyle[] styles = JCalendarDayStyle.styles;
+		if (styles == null) {
+			styles = createStyles();
+			JCalendarDayStyle.styles = styles;
+		}
+		return styles[(isNonWorkingDay ? NON_WORKING_DAY : 0) | (isSelected ? SELECTED : 0)
+				| (isCurrentDay ? CURRENT_DAY : 0) | (isSelectedMonth ? SELECTED_MONTH : 0)];
+	}
+
+	private static JCalendarDayStyle[] createStyles() {
+		Color text = UIManager.getColor("textText");
+		Color inactiveText = UIManager.getColor("textInactiveText");
+		Color highlightText = UIManager.getColor("textHighlightText");
+		Color activeCaption = UIManager.getColor("activeCaption");
+		Color activeCaptionBorder = UIManager.getColor("activeCaptionBorder");
+
+		JCalendarDayStyle selected = new JCalendarDayStyle(true,
+				BorderFactory.createDashedBorder(highlightText, 1f, 1f), activeCaption, highlightText);
+		JCalendarDayStyle selectedOtherMonth = new JCalendarDayStyle(false,
+				BorderFactory.createLineBorder(activeCaptionBorder, 1), null, text);
+		JCalendarDayStyle currentDay = new JCalendarDayStyle(false, BorderFactory.createLineBorder(activeCaption, 1),
+				null, text);
+		JCalendarDayStyle selectedMonth = new JCalendarDayStyle(false, null, null, text);
+		JCalendarDayStyle otherMonth = new JCalendarDayStyle(false, null, null, inactiveText);
+
+		Color nonWorkingText = UIManager.getColor("Calendar.nonWorkingDayForeground");
+		if (nonWorkingText == null)
+			nonWorkingText = new Color(192, 32, 32);
+		Color nonWorkingInactiveText = mix(nonWorkingText, inactiveText);
+
+		JCalendarDayStyle nonWorkingSelectedOtherMonth = new JCalendarDayStyle(false,
+				selectedOtherMonth.border, null, nonWorkingText);
+		JCalendarDayStyle nonWorkingCurrentDay = new JCalendarDayStyle(false, currentDay.border, null,
+				nonWorkingText);
+		JCalendarDayStyle nonWorkingSelectedMonth = new JCalendarDayStyle(false, null, null, nonWorkingText);
+		JCalendarDayStyle nonWorkingOtherMonth = new JCalendarDayStyle(false, null, null, nonWorkingInactiveText);
+
+		JCalendarDayStyle[] styles = new JCalendarDayStyle[16];
+		styles[0] = otherMonth;
+		styles[SELECTED_MONTH] = selectedMonth;
+		styles[CURRENT_DAY] = currentDay;
+		styles[CURRENT_DAY | SELECTED_MONTH] = currentDay;
+		styles[SELECTED] = selectedOtherMonth;
+		styles[SELECTED | SELECTED_MONTH] = selected;
+		styles[SELECTED | CURRENT_DAY] = selected;
+		styles[SELECTED | CURRENT_DAY | SELECTED_MONTH] = selected;
+		styles[NON_WORKING_DAY] = nonWorkingOtherMonth;
+		styles[NON_WORKING_DAY | SELECTED_MONTH] = nonWorkingSelectedMonth;
+		styles[NON_WORKING_DAY | CURRENT_DAY] = nonWorkingCurrentDay;
+		styles[NON_WORKING_DAY | CURRENT_DAY | SELECTED_MONTH] = nonWorkingCurrentDay;
+		styles[NON_WORKING_DAY | SELECTED] = nonWorkingSelectedOtherMonth;
+		styles[NON_WORKING_DAY | SELECTED | SELECTED_MONTH] = selected;
+		styles[NON_WORKING_DAY | SELECTED | CURRENT_DAY] = selected;
+		styles[NON_WORKING_DAY | SELECTED | CURRENT_DAY | SELECTED_MONTH] = selected;
+		return styles;
+	}
+
+	private static Color mix(Color first, Color second) {
+		if (second == null)
+			return first;
+		return new Color((first.getRed() + second.getRed()) / 2, (first.getGreen() + second.getGreen()) / 2,
+				(first.getBlue() + second.getBlue()) / 2);
+	}
+
+	/**
+	 * Applies this style to the specified component.
+	 *
+	 * @param component the component to style
+	 */
+	public void apply(JComponent component) {
+		component.setOpaque(opaque);
+		component.setBorder(border);
+		if (background != null)
+			component.setBackground(background);
+		component.setForeground(foreground);
+	}
+
+	/**
+	 * Checks whether cells with this style paint their background.
+	 *
+	 * @return true if the background is painted
+	 */
+	public boolean isOpaque() {
+		return opaque;
+	}
+
+	/**
+	 * Gets the border of this style.
+	 *
+	 * @return the border, or null if cells have no border
+	 */
+	public Border getBorder() {
+		return border;
+	}
+
+	/**
+	 * Gets the background color of this style.
+	 *
+	 * @return the background color, or null if the background is not painted
+	 */
+	public Color getBackground() {
+		return background;
+	}
+
+	/**
+	 * Gets the foreground color of this style.
+	 *
+	 * @return the foreground color
+	 */
+	public Color getForeground() {
+		return foreground;
+	}
+
+}
@@ -0,0 +1,45 @@
+package kaba4cow.jdtm;
+
+/**
+ * A component that displays calendar days and provides the data painted by a
+ * {@link JCalendarDayGrid.DayRenderer}.
+ */
+public interface JCalendarDayView {
+
+	/**
+	 * Gets the number of data model entries of a day.
+	 *
+	 * @param epochDay The epoch day.
+	 * @return The number of entries of the day.
+	 */
+	public int getEntryCount(long epochDay);
+
+	/**
+	 * Gets the decoration of a day.
+	 *
+	 * @param epochDay The epoch day.
+	 * @return The decoration, or null if the day has no decoration or its
+	 *         decorations are not loaded yet.
+	 */
+	public Object getDecoration(long epochDay);
+
+	/**
+	 * Checks whether the decorations of a day are loaded.
+	 *
+	 * @param epochDay The epoch day.
+	 * @return true if the decorations of the day are loaded.
+	 */
+	public boolean isDecorationLoaded(long epochDay);
+
+	/**
+	 * Checks whether a day is a working day. Non-working days are painted with a
+	 * distinct style by the default day renderer.
+	 *
+	 * @param epochDay The epoch day.
+	 * @return true if the day is a working day.
+	 */
+	public default boolean isWorkingDay(long epochDay) {
+		return true;
+	}
+
+}
@@ -0,0 +1,258 @@
+package kaba4cow.jdtm;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Loads day decorations from a possibly slow {@link Provider} off the Event
+ * Dispatch Thread and keeps the results in a bounded LRU cache keyed by month.
+ * The provider is called on a configurable executor (for example a virtual
+ * thread executor), and results are stored and announced to the listeners on
+ * the Event Dispatch Thread. All other methods must be called on the Event
+ * Dispatch Thread.
+ *
+ * @param <T> the type of the decorations
+ */
+public class JCalendarDecorations<T> {
+
+	private final Provider<T> provider;
+	private final Executor executor;
+	private final int capacity;
+
+	private final LinkedHashMap<YearMonth, Object[]> cache;
+	private final Map<YearMonth, Load> pending;
+	private final CopyOnWriteArrayList<DecorationListener> listeners;
+
+	private final Executor edtExecutor;
+
+	/**
+	 * Constructs a new JCalendarDecorations.
+	 *
+	 * @param provider the provider of the decorations
+	 * @param executor the executor that calls the provider
+	 * @param capacity the maximum number of cached months, at least the three
+	 *                 months loaded by {@link #prefetch(YearMonth)}
+	 * @throws IllegalArgumentException if capacity is less than 3
+	 */
+	public JCalendarDecorations(Provider<T> provider, Executor executor, int capacity) {
+		if (capacity < 3)
+			throw new IllegalArgumentException("Capacity must be >= 3");
+		this.provider = provider;
+		this.executor = executor;
+		this.capacity = capacity;
+		this.cache = new LinkedHashMap<YearMonth, Object[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<YearMonth, Object[]> eldest) {
+				return size() > JCalendarDecorations.this.capacity;
+			}
+		};
+		this.pending = new HashMap<>();
+		this.listeners = new CopyOnWriteArrayList<>();
+		this.edtExecutor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				SwingUtilities.invokeLater(command);
+			}
+		};
+	}
+
+	/**
+	 * Gets the cached decorations of a month without loading them.
+	 *
+	 * @param month the month
+	 * @return an array indexed by day of month minus one, or null if the month is
+	 *         not cached
+	 */
+	Object[] getCached(YearMonth month) {
+		return cache.get(month);
+	}
+
+	/**
+	 * Gets the decoration of a day if its month is cached.
+	 *
+	 * @param date the day
+	 * @return the decoration, or null if the day has no decoration or its month
+	 *         is not loaded yet
+	 */
+	@SuppressWarnings("unchecked")
+	public T getDecoration(LocalDate date) {
+		Object[] decorations = cache.get(YearMonth.from(date));
+		return decorations == null ? null : (T) decorations[date.getDayOfMonth() - 1];
+	}
+
+	/**
+	 * Checks whether the decorations of a month are cached.
+	 *
+	 * @param month the month
+	 * @return true if the month is cached
+	 */
+	public boolean isLoaded(YearMonth month) {
+		return cache.containsKey(month);
+	}
+
+	/**
+	 * Loads the decorations of a month unless they are cached or already being
+	 * loaded.
+	 *
+	 * @param month the month to load
+	 * @return a future completed on the Event Dispatch Thread once the load has
+	 *         finished
+	 */
+	public CompletableFuture<Void> load(YearMonth month) {
+		if (cache.containsKey(month))
+			return CompletableFuture.completedFuture(null);
+		Load load = pending.get(month);
+		if (load == null) {
+			Load newLoad = new Load();
+			newLoad.future = CompletableFuture.supplyAsync(new Supplier<Object[]>() {
+				@Override
+				public Object[] get() {
+					return fetch(month);
+				}
+			}, executor).thenAcceptAsync(days -> {
+				if (pending.get(month) != newLoad)
+					return;
+				pending.remove(month);
+				cache.put(month, days);
+				for (DecorationListener listener : listeners)
+					listener.onDecorationsLoaded(this, month);
+			}, edtExecutor).whenComplete((result, exception) -> {
+				if (exception != null)
+					edtExecutor.execute(() -> pending.remove(month, newLoad));
+			});
+			pending.put(month, newLoad);
+			load = newLoad;
+		}
+		return load.future;
+	}
+
+	private Object[] fetch(YearMonth month) {
+		Map<LocalDate, ? extends T> decorations = provider.getDecorations(month);
+		Object[] days = new Object[month.lengthOfMonth()];
+		if (decorations != null)
+			for (Map.Entry<LocalDate, ? extends T> entry : decorations.entrySet()) {
+				LocalDate date = entry.getKey();
+				if (date.getYear() == month.getYear() && date.getMonthValue() == month.getMonthValue())
+					days[date.getDayOfMonth() - 1] = entry.getValue();
+			}
+		return days;
+	}
+
+	/**
+	 * Loads a month together with its previous and next months.
+	 *
+	 * @param month the month to load
+	 */
+	public void prefetch(YearMonth month) {
+		load(month);
+		load(month.minusMonths(1));
+		load(month.plusMonths(1));
+	}
+
+	/**
+	 * Removes a month from the cache and discards the result of a load in
+	 * progress, so that it is loaded again on next use. The listeners are
+	 * notified so that displayed months can be reloaded.
+	 *
+	 * @param month the month to invalidate
+	 */
+	public void invalidate(YearMonth month) {
+		cache.remove(month);
+		pending.remove(month);
+		for (DecorationListener listener : listeners)
+			listener.onDecorationsInvalidated(this, month);
+	}
+
+	/**
+	 * Removes all months from the cache and discards the results of loads in
+	 * progress. The listeners are notified so that displayed months can be
+	 * reloaded.
+	 */
+	public void invalidateAll() {
+		cache.clear();
+		pending.clear();
+		for (DecorationListener listener : listeners)
+			listener.onDecorationsInvalidated(this, null);
+	}
+
+	/**
+	 * Adds a listener to receive notifications when decorations are loaded or
+	 * invalidated.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addDecorationListener(DecorationListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addDecorationListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeDecorationListener(DecorationListener listener) {
+		listeners.remove(listener);
+	}
+
+	private static final class Load {
+
+		private CompletableFuture<Void> future;
+
+	}
+
+	/**
+	 * Provider interface for day decorations. Called off the Event Dispatch
+	 * Thread, so implementations may block on a slow backend.
+	 *
+	 * @param <T> the type of the decorations
+	 */
+	public static interface Provider<T> {
+
+		/**
+		 * Gets the decorations of the days of a month.
+		 *
+		 * @param month The month.
+		 * @return The decorations of the decorated days of the month.
+		 */
+		public Map<LocalDate, ? extends T> getDecorations(YearMonth month);
+
+	}
+
+	/**
+	 * Listener interface for receiving notifications when decorations of a
+	 * JCalendarDecorations are loaded or invalidated. Called on the Event Dispatch
+	 * Thread.
+	 */
+	public static interface DecorationListener {
+
+		/**
+		 * Called when the decorations of a month have been loaded into the cache.
+		 *
+		 * @param decorations The decorations that changed.
+		 * @param month       The loaded month.
+		 */
+		public void onDecorationsLoaded(JCalendarDecorations<?> decorations, YearMonth month);
+
+		/**
+		 * Called when the decorations of a month have been invalidated.
+		 *
+		 * @param decorations The decorations that changed.
+		 * @param month       The invalidated month, or null if all months have been
+		 *                    invalidated.
+		 */
+		public void onDecorationsInvalidated(JCalendarDecorations<?> decorations, YearMonth month);
+
+	}
+
+}
@@ -0,0 +1,228 @@
+package kaba4cow.jdtm;
+
+import java.time.LocalDate;
+
+/**
+ * Computes the 6x7 day layout of a calendar month using epoch-day arithmetic
+ * and tracks which cells change between two consecutive selections.
+ */
+final class JCalendarMonthGrid {
+
+	static final int UNCHANGED = 0;
+	static final int CELLS_CHANGED = 1;
+	static final int LAYOUT_CHANGED = 2;
+
+	private static final int noCell = -1;
+
+	private final int cellCount;
+	private final int[] changedCells;
+	private int changedCount;
+
+	private int firstDayOfWeek;
+	private int year;
+	private int month;
+	private long startEpochDay;
+	private long firstEpochDay;
+	private long lastEpochDay;
+	private int previousMonthLength;
+
+	private long selectedEpochDay;
+	private long currentEpochDay;
+
+	JCalendarMonthGrid() {
+		cellCount = JDateTimeUtils.getNumberOfWeeks() * JDateTimeUtils.getNumberOfDays();
+		changedCells = new int[4];
+		changedCount = 0;
+		firstDayOfWeek = 0;
+		year = Integer.MIN_VALUE;
+		month = 0;
+	}
+
+	/**
+	 * Gets the day of week of an epoch day.
+	 *
+	 * @param epochDay the epoch day
+	 * @return the day of week index (0 = Mon, 1 = Tue, ..., 6 = Sun)
+	 */
+	static int getDayOfWeek(long epochDay) {
+		return (int) Math.floorMod(epochDay + 3L, 7L);
+	}
+
+	/**
+	 * Gets the day of month of an epoch day without creating a LocalDate.
+	 *
+	 * @param epochDay the epoch day
+	 * @return the day of month (1 - 31)
+	 */
+	static int getDayOfMonth(long epochDay) {
+		return (int) (getPackedDate(epochDay) & 31L);
+	}
+
+	/**
+	 * Gets the month of an epoch day without creating a LocalDate.
+	 *
+	 * @param epochDay the epoch day
+	 * @return the month (1 = January, 2 = February, ..., 12 = December)
+	 */
+	static int getMonthValue(long epochDay) {
+		return (int) ((getPackedDate(epochDay) >> 5) & 15L);
+	}
+
+	/**
+	 * Converts an epoch day to a proleptic Gregorian date packed as
+	 * {@code year << 9 | month << 5 | dayOfMonth}.
+	 *
+	 * @param epochDay the epoch day
+	 * @return the packed date
+	 */
+	static long getPackedDate(long epochDay) {
+		long days = epochDay + 719468L;
+		long era = Math.floorDiv(days, 146097L);
+		long dayOfEra = days - era * 146097L;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460L + dayOfEra / 36524L - dayOfEra / 146096L) / 365L;
+		long dayOfYear = dayOfEra - (365L * yearOfEra + yearOfEra / 4L - yearOfEra / 100L);
+		long monthIndex = (5L * dayOfYear + 2L) / 153L;
+		long dayOfMonth = dayOfYear - (153L * monthIndex + 2L) / 5L + 1L;
+		long month = monthIndex < 10L ? monthIndex + 3L : monthIndex - 9L;
+		long year = yearOfEra + era * 400L + (month <= 2L ? 1L : 0L);
+		return year << 9 | month << 5 | dayOfMonth;
+	}
+
+	/**
+	 * Selects a date and computes the difference to the previous state.
+	 *
+	 * @param date  the date to select
+	 * @param today the current date
+	 * @return LAYOUT_CHANGED if every cell has to be updated, CELLS_CHANGED if
+	 *         only the cells returned by getChangedCell have to be updated, or
+	 *         UNCHANGED
+	 */
+	int select(LocalDate date, LocalDate today) {
+		long epochDay = date.toEpochDay();
+		long todayEpochDay = today.toEpochDay();
+		changedCount = 0;
+		if (date.getYear() != year || date.getMonthValue() != month) {
+			year = date.getYear();
+			month = date.getMonthValue();
+			firstEpochDay = epochDay - date.getDayOfMonth() + 1;
+			lastEpochDay = firstEpochDay + date.lengthOfMonth() - 1;
+			int offset = Math.floorMod(getDayOfWeek(firstEpochDay) - firstDayOfWeek, JDateTimeUtils.getNumberOfDays());
+			startEpochDay = firstEpochDay - (offset == 0 ? JDateTimeUtils.getNumberOfDays() : offset);
+			previousMonthLength = (int) (firstEpochDay - LocalDate.ofEpochDay(firstEpochDay - 1L).withDayOfMonth(1)
+					.toEpochDay());
+			selectedEpochDay = epochDay;
+			currentEpochDay = todayEpochDay;
+			return LAYOUT_CHANGED;
+		}
+		if (epochDay != selectedEpochDay) {
+			markChanged(selectedEpochDay);
+			markChanged(epochDay);
+			selectedEpochDay = epochDay;
+		}
+		if (todayEpochDay != currentEpochDay) {
+			markChanged(currentEpochDay);
+			markChanged(todayEpochDay);
+			currentEpochDay = todayEpochDay;
+		}
+		return changedCount == 0 ? UNCHANGED : CELLS_CHANGED;
+	}
+
+	/**
+	 * Sets the day of week displayed in the first column. The layout is
+	 * recomputed on the next selection.
+	 *
+	 * @param firstDayOfWeek the index of the first day (0 = Mon, 1 = Tue, ..., 6 =
+	 *                       Sun)
+	 */
+	void setFirstDayOfWeek(int firstDayOfWeek) {
+		if (firstDayOfWeek == this.firstDayOfWeek)
+			return;
+		this.firstDayOfWeek = firstDayOfWeek;
+		year = Integer.MIN_VALUE;
+	}
+
+	int getFirstDayOfWeek() {
+		return firstDayOfWeek;
+	}
+
+	private void markChanged(long epochDay) {
+		int cell = indexOf(epochDay);
+		if (cell == noCell)
+			return;
+		for (int i = 0; i < changedCount; i++)
+			if (changedCells[i] == cell)
+				return;
+		changedCells[changedCount++] = cell;
+	}
+
+	/**
+	 * Gets the cell index of an epoch day.
+	 *
+	 * @param epochDay the epoch day
+	 * @return the cell index, or -1 if the day is not visible
+	 */
+	int indexOf(long epochDay) {
+		long cell = epochDay - startEpochDay;
+		return cell < 0L || cell >= cellCount ? noCell : (int) cell;
+	}
+
+	int getYear() {
+		return year;
+	}
+
+	int getMonth() {
+		return month;
+	}
+
+	long getFirstEpochDay() {
+		return firstEpochDay;
+	}
+
+	long getLastEpochDay() {
+		return lastEpochDay;
+	}
+
+	int getChangedCount() {
+		return changedCount;
+	}
+
+	int getChangedCell(int index) {
+		return changedCells[index];
+	}
+
+	int getCellCount() {
+		return cellCount;
+	}
+
+	long getEpochDay(int cell) {
+		return startEpochDay + cell;
+	}
+
+	int getDayOfMonth(int cell) {
+		long epochDay = startEpochDay + cell;
+		if (epochDay < firstEpochDay)
+			return previousMonthLength - (int) (firstEpochDay - epochDay) + 1;
+		else if (epochDay > lastEpochDay)
+			return (int) (epochDay - lastEpochDay);
+		else
+			return (int) (epochDay - firstEpochDay) + 1;
+	}
+
+	boolean isSelected(int cell) {
+		return startEpochDay + cell == selectedEpochDay;
+	}
+
+	boolean isCurrentDay(int cell) {
+		return startEpochDay + cell == currentEpochDay;
+	}
+
+	boolean isSelectedMonth(int cell) {
+		long epochDay = startEpochDay + cell;
+		return epochDay >= firstEpochDay && epochDay <= lastEpochDay;
+	}
+
+	long getSelectedEpochDay() {
+		return selectedEpochDay;
+	}
+
+}
@@ -1,26 +1,21 @@
 package kaba4cow.jdtm;
 
 import java.awt.BorderLayout;
-import java.awt.GridLayout;
 import java.awt.Insets;
 import java.awt.SystemColor;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.time.DayOfWeek;
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Locale;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.Timer;
 
 /**
  * A panel that displays a calendar view with selectable dates. Supports
@@ -31,10 +26,13 @@ public class JCalendarPanel extends JPanel {
 
 	private static final long serialVersionUID = 1L;
 
-	private final List<CalendarListener> listeners = new ArrayList<>();
+	private final JListenerDelivery<CalendarListener, LocalDate> delivery;
 
 	private final JLabel monthLabel;
-	private final JCalendarDayLabel[] dayLabels;
+	private final JButton clockButton;
+	private final JCalendarDayGrid dayGrid;
+
+	private JDateTimeNames names;
 
 	private LocalDate selectedDate;
 
@@ -44,25 +42,30 @@ public class JCalendarPanel extends JPanel {
 	 */
 	public JCalendarPanel() {
 		super(new BorderLayout());
+		delivery = new JListenerDelivery<>(this, new JListenerDelivery.Notifier<CalendarListener, LocalDate>() {
+			@Override
+			public void deliver(CalendarListener listener, LocalDate value) {
+				listener.onDateSelected(value);
+			}
+		});
+		names = JDateTimeNames.get(getLocale());
 
 		JPanel titlePanel = new JPanel();
 		titlePanel.setLayout(new BorderLayout());
 		{
-			JButton clockButton = new JButton();
+			clockButton = new JButton();
 			clockButton.addActionListener(new ActionListener() {
 				@Override
 				public void actionPerformed(ActionEvent event) {
-					selectDate(LocalDate.now());
+					selectDate(JTickScheduler.getInstance().getSnapshot(getClock()).getDate());
 				}
 			});
-			Timer timer = new Timer(500, new ActionListener() {
+			JTickScheduler.getInstance().subscribe(clockButton, new JTickScheduler.TickListener() {
 				@Override
-				public void actionPerformed(ActionEvent e) {
-					clockButton.setText(JDateTimeUtils.formatTitleTime(LocalDateTime.now()));
+				public void onTick() {
+					updateClockButton();
 				}
 			});
-			timer.setInitialDelay(0);
-			timer.start();
 			titlePanel.add(clockButton, BorderLayout.NORTH);
 
 			monthLabel = new JLabel();
@@ -92,23 +95,17 @@ public class JCalendarPanel extends JPanel {
 		}
 		add(titlePanel, BorderLayout.NORTH);
 
-		JPanel daysPanel = new JPanel();
-		daysPanel.setLayout(new GridLayout(JDateTimeUtils.getNumberOfWeeks() + 1, JDateTimeUtils.getNumberOfDays()));
-		daysPanel.setBorder(BorderFactory.createLineBorder(SystemColor.textInactiveText));
-		{
-			for (int i = 0; i < JDateTimeUtils.getNumberOfDays(); i++) {
-				JLabel weekDayLabel = new JLabel(JDateTimeUtils.getDayName(i));
-				weekDayLabel.setHorizontalAlignment(JLabel.CENTER);
-				weekDayLabel.setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, SystemColor.textText));
-				daysPanel.add(weekDayLabel);
-			}
-			dayLabels = new JCalendarDayLabel[JDateTimeUtils.getNumberOfWeeks() * JDateTimeUtils.getNumberOfDays()];
-			for (int i = 0; i < dayLabels.length; i++) {
-				dayLabels[i] = new JCalendarDayLabel(this);
-				daysPanel.add(dayLabels[i]);
+		dayGrid = new JCalendarDayGrid();
+		dayGrid.setLocale(getLocale());
+		dayGrid.setBorder(BorderFactory.createLineBorder(SystemColor.textInactiveText));
+		dayGrid.setBusinessCalendar(JBusinessCalendar.getWeekendCalendar());
+		dayGrid.setSelectionHandler(new CalendarListener() {
+			@Override
+			public void onDateSelected(LocalDate newDate) {
+				selectDate(newDate);
 			}
-		}
-		add(daysPanel, BorderLayout.CENTER);
+		});
+		add(dayGrid, BorderLayout.CENTER);
 
 		setFocusable(true);
 		addKeyListener(new KeyAdapter() {
@@ -116,22 +113,22 @@ public class JCalendarPanel extends JPanel {
 			public void keyPressed(KeyEvent event) {
 				switch (event.getKeyCode()) {
 				case KeyEvent.VK_LEFT:
-					selectDate(selectedDate.minusDays(1));
+					moveSelection(selectedDate.minusDays(1), event);
 					return;
 				case KeyEvent.VK_RIGHT:
-					selectDate(selectedDate.plusDays(1));
+					moveSelection(selectedDate.plusDays(1), event);
 					return;
 				case KeyEvent.VK_UP:
-					selectDate(selectedDate.minusWeeks(1));
+					moveSelection(selectedDate.minusWeeks(1), event);
 					return;
 				case KeyEvent.VK_DOWN:
-					selectDate(selectedDate.plusWeeks(1));
+					moveSelection(selectedDate.plusWeeks(1), event);
 					return;
 				}
 			}
 		});
 
-		selectDate(LocalDate.now());
+		selectDate(dayGrid.getSelectedDate());
 	}
 
 	/**
@@ -141,24 +138,98 @@ public class JCalendarPanel extends JPanel {
 	 * @param date The date to select.
 	 */
 	public void selectDate(LocalDate date) {
-		monthLabel.setText(JDateTimeUtils.formatMonthYearDate(date));
-		LocalDate start = date//
-				.with(TemporalAdjusters.firstDayOfMonth())//
-				.with(TemporalAdjusters.previous(DayOfWeek.MONDAY));
-		LocalDate end = date//
-				.with(TemporalAdjusters.lastDayOfMonth())//
-				.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
-		end = end.plusWeeks(JDateTimeUtils.getNumberOfWeeks() - ChronoUnit.DAYS.between(start, end) / 7 - 1)
-				.plusDays(1);
-		Object[] dates = start.datesUntil(end).toArray();
-		for (int i = 0; i < dates.length; i++)
-			dayLabels[i].selectDate(date, (LocalDate) dates[i]);
-		requestFocus();
+		long start = JDateTimeMetrics.start();
+		if (selectedDate == null || date.getYear() != selectedDate.getYear()
+				|| date.getMonthValue() != selectedDate.getMonthValue())
+			monthLabel.setText(names.formatMonthYearDate(date));
 		boolean update = !date.equals(selectedDate);
 		selectedDate = date;
+		int cellsRestyled = dayGrid.select(date, JTickScheduler.getInstance().getSnapshot(getClock()).getDate());
+		requestFocus();
+		JDateTimeMetrics.recordSelectDate(this, start, cellsRestyled);
 		if (update)
-			for (CalendarListener listener : listeners)
-				listener.onDateSelected(date);
+			delivery.fire(date);
+	}
+
+	private void moveSelection(LocalDate date, KeyEvent event) {
+		JCalendarSelectionModel selectionModel = dayGrid.getSelectionModel();
+		if (selectionModel != null)
+			selectionModel.select(date.toEpochDay(), false, event.isShiftDown());
+		selectDate(date);
+	}
+
+	/**
+	 * Sets the locale of the day and month names and the first day of the week
+	 * displayed by this panel and its day grid.
+	 *
+	 * @param locale The locale.
+	 */
+	@Override
+	public void setLocale(Locale locale) {
+		super.setLocale(locale);
+		if (dayGrid == null)
+			return;
+		names = JDateTimeNames.get(locale);
+		dayGrid.setLocale(locale);
+		monthLabel.setText(names.formatMonthYearDate(selectedDate));
+		updateClockButton();
+	}
+
+	private void updateClockButton() {
+		clockButton.setText(names.formatTitleTime(JTickScheduler.getInstance().getSnapshot(getClock()).getDateTime()));
+	}
+
+	/**
+	 * Sets the clock that defines the current date and the time displayed in the
+	 * title. A fixed or offset clock makes the panel deterministic, such as in
+	 * tests that advance the time across a day or month boundary.
+	 *
+	 * @param clock The clock, or null to use the clock of the
+	 *              {@link JTickScheduler}.
+	 */
+	public void setClock(Clock clock) {
+		dayGrid.setClock(clock);
+		updateClockButton();
+	}
+
+	/**
+	 * Gets the clock that defines the current date and the time displayed in the
+	 * title.
+	 *
+	 * @return The clock, or null if the clock of the {@link JTickScheduler} is
+	 *         used.
+	 */
+	public Clock getClock() {
+		return dayGrid.getClock();
+	}
+
+	/**
+	 * Sets the business calendar that defines the non-working days painted with a
+	 * distinct style. By default Saturdays and Sundays are non-working days.
+	 *
+	 * @param businessCalendar The business calendar, or null to treat every day
+	 *                         as a working day.
+	 */
+	public void setBusinessCalendar(JBusinessCalendar businessCalendar) {
+		dayGrid.setBusinessCalendar(businessCalendar);
+	}
+
+	/**
+	 * Gets the business calendar that defines the non-working days.
+	 *
+	 * @return The business calendar, or null if every day is a working day.
+	 */
+	public JBusinessCalendar getBusinessCalendar() {
+		return dayGrid.getBusinessCalendar();
+	}
+
+	/**
+	 * Gets the grid component that displays the days of the selected month.
+	 *
+	 * @return The day grid.
+	 */
+	public JCalendarDayGrid getDayGrid() {
+		return dayGrid;
 	}
 
 	/**
@@ -167,7 +238,26 @@ public class JCalendarPanel extends JPanel {
 	 * @param listener The listener to add.
 	 */
 	public void addListener(CalendarListener listener) {
-		listeners.add(listener);
+		delivery.addListener(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(CalendarListener listener) {
+		delivery.removeListener(listener);
+	}
+
+	/**
+	 * Gets the delivery that notifies the listeners, which can be configured to
+	 * coalesce bursts of selections or to notify the listeners asynchronously.
+	 *
+	 * @return The listener delivery.
+	 */
+	public JListenerDelivery<CalendarListener, LocalDate> getListenerDelivery() {
+		return delivery;
 	}
 
 	/**
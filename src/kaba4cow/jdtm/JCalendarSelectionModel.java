@@ -0,0 +1,446 @@
+package kaba4cow.jdtm;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A selection of calendar days that supports multiple dates and ranges
+ * spanning many years. Days are stored as bits of a {@link BitSet} offset from
+ * a base epoch day, so a selection of several years costs a few hundred bytes
+ * and no {@link LocalDate} objects. Listeners are notified with the range of
+ * days that changed rather than with individual dates. Like other Swing
+ * models, the model should be modified on the Event Dispatch Thread.
+ */
+public class JCalendarSelectionModel {
+
+	private static final long noDay = Long.MIN_VALUE;
+
+	private final CopyOnWriteArrayList<SelectionListener> listeners;
+
+	private BitSet bits;
+	private long baseEpochDay;
+	private long anchorEpochDay;
+	private long leadEpochDay;
+
+	/**
+	 * Constructs a new empty JCalendarSelectionModel.
+	 */
+	public JCalendarSelectionModel() {
+		listeners = new CopyOnWriteArrayList<>();
+		bits = new BitSet();
+		baseEpochDay = noDay;
+		anchorEpochDay = noDay;
+		leadEpochDay = noDay;
+	}
+
+	/**
+	 * Checks whether a day is selected.
+	 *
+	 * @param date the day
+	 * @return true if the day is selected
+	 */
+	public boolean contains(LocalDate date) {
+		return contains(date.toEpochDay());
+	}
+
+	/**
+	 * Checks whether an epoch day is selected.
+	 *
+	 * @param epochDay the epoch day
+	 * @return true if the day is selected
+	 */
+	public boolean contains(long epochDay) {
+		if (baseEpochDay == noDay || epochDay < baseEpochDay)
+			return false;
+		long index = epochDay - baseEpochDay;
+		return index < bits.length() && bits.get((int) index);
+	}
+
+	/**
+	 * Replaces the selection with an interval of days. The first day becomes the
+	 * anchor and the last day becomes the lead of the selection.
+	 *
+	 * @param anchor the anchor day
+	 * @param lead   the lead day
+	 */
+	public void setSelectionInterval(LocalDate anchor, LocalDate lead) {
+		setSelectionInterval(anchor.toEpochDay(), lead.toEpochDay());
+	}
+
+	/**
+	 * Replaces the selection with an interval of epoch days. The first day becomes
+	 * the anchor and the last day becomes the lead of the selection.
+	 *
+	 * @param anchorEpochDay the anchor epoch day
+	 * @param leadEpochDay   the lead epoch day
+	 */
+	public void setSelectionInterval(long anchorEpochDay, long leadEpochDay) {
+		long from = Math.min(anchorEpochDay, leadEpochDay);
+		long to = Math.max(anchorEpochDay, leadEpochDay);
+		long changedFrom = from;
+		long changedTo = to;
+		if (!bits.isEmpty()) {
+			changedFrom = Math.min(changedFrom, getFirstEpochDay());
+			changedTo = Math.max(changedTo, getLastEpochDay());
+			bits.clear();
+		}
+		set(from, to);
+		this.anchorEpochDay = anchorEpochDay;
+		this.leadEpochDay = leadEpochDay;
+		fireSelectionChanged(changedFrom, changedTo);
+	}
+
+	/**
+	 * Adds an interval of days to the selection. The first day becomes the anchor
+	 * and the last day becomes the lead of the selection.
+	 *
+	 * @param anchor the anchor day
+	 * @param lead   the lead day
+	 */
+	public void addSelectionInterval(LocalDate anchor, LocalDate lead) {
+		addSelectionInterval(anchor.toEpochDay(), lead.toEpochDay());
+	}
+
+	/**
+	 * Adds an interval of epoch days to the selection. The first day becomes the
+	 * anchor and the last day becomes the lead of the selection.
+	 *
+	 * @param anchorEpochDay the anchor epoch day
+	 * @param leadEpochDay   the lead epoch day
+	 */
+	public void addSelectionInterval(long anchorEpochDay, long leadEpochDay) {
+		long from = Math.min(anchorEpochDay, leadEpochDay);
+		long to = Math.max(anchorEpochDay, leadEpochDay);
+		this.anchorEpochDay = anchorEpochDay;
+		this.leadEpochDay = leadEpochDay;
+		long first = nextClearEpochDay(from);
+		if (first > to)
+			return;
+		long last = previousClearEpochDay(to);
+		set(first, last);
+		fireSelectionChanged(first, last);
+	}
+
+	/**
+	 * Removes an interval of days from the selection. The first day becomes the
+	 * anchor and the last day becomes the lead of the selection.
+	 *
+	 * @param anchor the anchor day
+	 * @param lead   the lead day
+	 */
+	public void removeSelectionInterval(LocalDate anchor, LocalDate lead) {
+		removeSelectionInterval(anchor.toEpochDay(), lead.toEpochDay());
+	}
+
+	/**
+	 * Removes an interval of epoch days from the selection. The first day becomes
+	 * the anchor and the last day becomes the lead of the selection.
+	 *
+	 * @param anchorEpochDay the anchor epoch day
+	 * @param leadEpochDay   the lead epoch day
+	 */
+	public void removeSelectionInterval(long anchorEpochDay, long leadEpochDay) {
+		long from = Math.min(anchorEpochDay, leadEpochDay);
+		long to = Math.max(anchorEpochDay, leadEpochDay);
+		this.anchorEpochDay = anchorEpochDay;
+		this.leadEpochDay = leadEpochDay;
+		long first = nextSelectedEpochDay(from);
+		if (first == noDay || first > to)
+			return;
+		long last = previousSelectedEpochDay(to);
+		bits.clear((int) (first - baseEpochDay), (int) (last - baseEpochDay) + 1);
+		fireSelectionChanged(first, last);
+	}
+
+	/**
+	 * Selects or deselects a day depending on whether it is currently selected.
+	 * The day becomes the anchor and the lead of the selection.
+	 *
+	 * @param epochDay the epoch day
+	 */
+	public void toggle(long epochDay) {
+		if (contains(epochDay))
+			removeSelectionInterval(epochDay, epochDay);
+		else
+			addSelectionInterval(epochDay, epochDay);
+	}
+
+	/**
+	 * Deselects all days.
+	 */
+	public void clearSelection() {
+		if (bits.isEmpty())
+			return;
+		long from = getFirstEpochDay();
+		long to = getLastEpochDay();
+		bits.clear();
+		fireSelectionChanged(from, to);
+	}
+
+	/**
+	 * Updates the selection the way a list updates it on a click: a plain click
+	 * selects only the day, toggle (Ctrl) adds or removes the day, extend (Shift)
+	 * selects the interval between the anchor and the day, and both together add
+	 * that interval to the selection.
+	 *
+	 * @param epochDay the clicked epoch day
+	 * @param toggle   whether the selection of the day is toggled
+	 * @param extend   whether the selection is extended from the anchor
+	 */
+	public void select(long epochDay, boolean toggle, boolean extend) {
+		long anchor = anchorEpochDay == noDay ? epochDay : anchorEpochDay;
+		if (extend && toggle)
+			addSelectionInterval(anchor, epochDay);
+		else if (extend)
+			setSelectionInterval(anchor, epochDay);
+		else if (toggle)
+			toggle(epochDay);
+		else
+			setSelectionInterval(epochDay, epochDay);
+	}
+
+	/**
+	 * Checks whether no day is selected.
+	 *
+	 * @return true if the selection is empty
+	 */
+	public boolean isEmpty() {
+		return bits.isEmpty();
+	}
+
+	/**
+	 * Gets the number of selected days.
+	 *
+	 * @return the number of selected days
+	 */
+	public int getSelectedCount() {
+		return bits.cardinality();
+	}
+
+	/**
+	 * Gets the number of selected days in an interval of epoch days.
+	 *
+	 * @param fromEpochDay the first epoch day of the interval
+	 * @param toEpochDay   the last epoch day of the interval (inclusive)
+	 * @return the number of selected days in the interval
+	 */
+	public int getSelectedCount(long fromEpochDay, long toEpochDay) {
+		if (bits.isEmpty() || toEpochDay < fromEpochDay)
+			return 0;
+		long from = Math.max(fromEpochDay, baseEpochDay) - baseEpochDay;
+		long to = Math.min(toEpochDay - baseEpochDay, bits.length() - 1L);
+		if (from > to)
+			return 0;
+		return bits.get((int) from, (int) to + 1).cardinality();
+	}
+
+	/**
+	 * Gets the first selected epoch day.
+	 *
+	 * @return the first selected epoch day, or Long.MIN_VALUE if the selection is
+	 *         empty
+	 */
+	public long getFirstEpochDay() {
+		return bits.isEmpty() ? noDay : baseEpochDay + bits.nextSetBit(0);
+	}
+
+	/**
+	 * Gets the last selected epoch day.
+	 *
+	 * @return the last selected epoch day, or Long.MIN_VALUE if the selection is
+	 *         empty
+	 */
+	public long getLastEpochDay() {
+		return bits.isEmpty() ? noDay : baseEpochDay + bits.length() - 1L;
+	}
+
+	/**
+	 * Gets the anchor of the selection, which is the day an extended selection
+	 * starts from.
+	 *
+	 * @return the anchor epoch day, or Long.MIN_VALUE if the selection was never
+	 *         changed
+	 */
+	public long getAnchorEpochDay() {
+		return anchorEpochDay;
+	}
+
+	/**
+	 * Gets the lead of the selection, which is the most recently selected day.
+	 *
+	 * @return the lead epoch day, or Long.MIN_VALUE if the selection was never
+	 *         changed
+	 */
+	public long getLeadEpochDay() {
+		return leadEpochDay;
+	}
+
+	/**
+	 * Gets the first selected epoch day on or after the specified epoch day.
+	 *
+	 * @param epochDay the epoch day to start from
+	 * @return the selected epoch day, or Long.MIN_VALUE if there is none
+	 */
+	public long nextSelectedEpochDay(long epochDay) {
+		if (bits.isEmpty())
+			return noDay;
+		long index = Math.max(epochDay, baseEpochDay) - baseEpochDay;
+		if (index >= bits.length())
+			return noDay;
+		int next = bits.nextSetBit((int) index);
+		return next < 0 ? noDay : baseEpochDay + next;
+	}
+
+	/**
+	 * Gets the last selected epoch day on or before the specified epoch day.
+	 *
+	 * @param epochDay the epoch day to start from
+	 * @return the selected epoch day, or Long.MIN_VALUE if there is none
+	 */
+	public long previousSelectedEpochDay(long epochDay) {
+		if (bits.isEmpty() || epochDay < baseEpochDay)
+			return noDay;
+		long index = Math.min(epochDay - baseEpochDay, bits.length() - 1L);
+		int previous = bits.previousSetBit((int) index);
+		return previous < 0 ? noDay : baseEpochDay + previous;
+	}
+
+	private long nextClearEpochDay(long epochDay) {
+		if (baseEpochDay == noDay || epochDay < baseEpochDay || epochDay - baseEpochDay >= bits.length())
+			return epochDay;
+		return baseEpochDay + bits.nextClearBit((int) (epochDay - baseEpochDay));
+	}
+
+	private long previousClearEpochDay(long epochDay) {
+		if (baseEpochDay == noDay || epochDay < baseEpochDay || epochDay - baseEpochDay >= bits.length())
+			return epochDay;
+		return baseEpochDay + bits.previousClearBit((int) (epochDay - baseEpochDay));
+	}
+
+	/**
+	 * Visits every maximal interval of consecutive selected days, in order.
+	 *
+	 * @param visitor the visitor
+	 * @return the number of visited intervals
+	 */
+	public int forEachRange(RangeVisitor visitor) {
+		return forEachRange(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+	}
+
+	/**
+	 * Visits every maximal interval of consecutive selected days that overlaps an
+	 * interval of epoch days, in order. Visited intervals are clipped to the
+	 * interval.
+	 *
+	 * @param fromEpochDay the first epoch day of the interval
+	 * @param toEpochDay   the last epoch day of the interval (inclusive)
+	 * @param visitor      the visitor
+	 * @return the number of visited intervals
+	 */
+	public int forEachRange(long fromEpochDay, long toEpochDay, RangeVisitor visitor) {
+		int count = 0;
+		long start = nextSelectedEpochDay(fromEpochDay);
+		while (start != noDay && start <= toEpochDay) {
+			long end = baseEpochDay + bits.nextClearBit((int) (start - baseEpochDay)) - 1L;
+			visitor.visit(start, Math.min(end, toEpochDay));
+			count++;
+			start = nextSelectedEpochDay(end + 1L);
+		}
+		return count;
+	}
+
+	private void set(long from, long to) {
+		ensureRange(from, to);
+		bits.set((int) (from - baseEpochDay), (int) (to - baseEpochDay) + 1);
+	}
+
+	private void ensureRange(long from, long to) {
+		long base = Math.floorDiv(from, 64L) * 64L;
+		if (baseEpochDay == noDay || bits.isEmpty())
+			baseEpochDay = base;
+		else if (from < baseEpochDay) {
+			int shift = (int) ((baseEpochDay - base) / 64L);
+			long[] words = bits.toLongArray();
+			long[] shifted = new long[words.length + shift];
+			System.arraycopy(words, 0, shifted, shift, words.length);
+			bits = BitSet.valueOf(shifted);
+			baseEpochDay = base;
+		}
+		if (to - baseEpochDay >= Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Selection must not span more than " + Integer.MAX_VALUE + " days");
+	}
+
+	/**
+	 * Adds a listener to receive notifications when the selection changes.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addSelectionListener(SelectionListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addSelectionListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeSelectionListener(SelectionListener listener) {
+		listeners.remove(listener);
+	}
+
+	private void fireSelectionChanged(long fromEpochDay, long toEpochDay) {
+		for (SelectionListener listener : listeners)
+			listener.onSelectionChanged(this, fromEpochDay, toEpochDay);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		forEachRange(new RangeVisitor() {
+			@Override
+			public void visit(long startEpochDay, long endEpochDay) {
+				if (builder.length() > 1)
+					builder.append(", ");
+				JDateTimeUtils.appendDate(builder, LocalDate.ofEpochDay(startEpochDay));
+				if (endEpochDay != startEpochDay)
+					JDateTimeUtils.appendDate(builder.append(" - "), LocalDate.ofEpochDay(endEpochDay));
+			}
+		});
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * Visitor interface for intervals of selected days.
+	 */
+	public static interface RangeVisitor {
+
+		/**
+		 * Called for every visited interval of consecutive selected days.
+		 *
+		 * @param startEpochDay the first epoch day of the interval
+		 * @param endEpochDay   the last epoch day of the interval (inclusive)
+		 */
+		public void visit(long startEpochDay, long endEpochDay);
+
+	}
+
+	/**
+	 * Listener interface for receiving notifications when the selection of a
+	 * JCalendarSelectionModel changes.
+	 */
+	public static interface SelectionListener {
+
+		/**
+		 * Called when the selection of an interval of days changes. Days inside the
+		 * interval may or may not have changed, days outside of it have not.
+		 *
+		 * @param model        The model that changed.
+		 * @param fromEpochDay The first affected epoch day.
+		 * @param toEpochDay   The last affected epoch day (inclusive).
+		 */
+		public void onSelectionChanged(JCalendarSelectionModel model, long fromEpochDay, long toEpochDay);
+
+	}
+
+}
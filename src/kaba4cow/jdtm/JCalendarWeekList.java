@@ -0,0 +1,621 @@
+package kaba4cow.jdtm;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.SystemColor;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.swing.BorderFactory;
+import javax.swing.CellRendererPane;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+import kaba4cow.jdtm.JCalendarPanel.CalendarListener;
+
+/**
+ * A scrollable calendar that displays a continuous list of weeks spanning many
+ * years. Only the weeks visible in the enclosing scroll pane are painted, and
+ * a single {@link JCalendarDayGrid.DayRenderer} is reused for every cell, so
+ * memory and paint cost do not depend on the number of years. The month of
+ * each week is shown in a column on the left, and the day names are shown in
+ * the column header of the enclosing scroll pane.
+ */
+public class JCalendarWeekList extends JComponent implements Scrollable, JCalendarDayView {
+
+	private static final long serialVersionUID = 1L;
+
+	private final JListenerDelivery<CalendarListener, LocalDate> delivery;
+
+	private final long fromEpochDay;
+	private final long toEpochDay;
+
+	private final CellRendererPane rendererPane;
+	private final JLabel monthLabel;
+	private final String[] monthTexts;
+	private final long[] monthTextKeys;
+	private final JComponent header;
+	private final Rectangle clipBounds;
+	private final JCalendarDataModel.DataModelListener dataModelListener;
+	private final JCalendarSelectionModel.SelectionListener selectionListener;
+
+	private JCalendarDayGrid.DayRenderer renderer;
+	private JCalendarDataModel<?> dataModel;
+	private JCalendarSelectionModel selectionModel;
+	private JDateTimeNames names;
+	private long startEpochDay;
+	private int weekCount;
+	private JBusinessCalendar businessCalendar;
+	private Clock clock;
+
+	private long selectedEpochDay;
+	private long currentEpochDay;
+	private int cellWidth;
+	private int rowHeight;
+	private int monthColumnWidth;
+
+	/**
+	 * Constructs a new JCalendarWeekList spanning 100 years before and after the
+	 * current date. The current date is selected.
+	 */
+	public JCalendarWeekList() {
+		this(JTickScheduler.getInstance().getSnapshot().getDate());
+	}
+
+	private JCalendarWeekList(LocalDate today) {
+		this(today.minusYears(100), today.plusYears(100));
+	}
+
+	/**
+	 * Constructs a new JCalendarWeekList spanning the weeks that contain the
+	 * specified dates. The current date, or the nearest date in range, is
+	 * selected.
+	 *
+	 * @param from The first date to display.
+	 * @param to   The last date to display.
+	 * @throws IllegalArgumentException if to is before from
+	 */
+	public JCalendarWeekList(LocalDate from, LocalDate to) {
+		super();
+		if (to.isBefore(from))
+			throw new IllegalArgumentException("Last date must not be before first date");
+		fromEpochDay = from.toEpochDay();
+		toEpochDay = to.toEpochDay();
+		names = JDateTimeNames.get(getLocale());
+		monthTexts = new String[64];
+		monthTextKeys = new long[64];
+		updateRange();
+
+		delivery = new JListenerDelivery<>(this, new JListenerDelivery.Notifier<CalendarListener, LocalDate>() {
+			@Override
+			public void deliver(CalendarListener listener, LocalDate value) {
+				listener.onDateSelected(value);
+			}
+		});
+		clipBounds = new Rectangle();
+		dataModelListener = new JCalendarDataModel.DataModelListener() {
+			@Override
+			public void onDataChanged(JCalendarDataModel<?> model, long fromEpochDay, long toEpochDay) {
+				repaintDays(fromEpochDay, toEpochDay);
+			}
+		};
+		selectionListener = new JCalendarSelectionModel.SelectionListener() {
+			@Override
+			public void onSelectionChanged(JCalendarSelectionModel model, long fromEpochDay, long toEpochDay) {
+				repaintDays(fromEpochDay, toEpochDay);
+			}
+		};
+
+		rendererPane = new CellRendererPane();
+		add(rendererPane);
+
+		monthLabel = new JLabel();
+		monthLabel.setHorizontalAlignment(JLabel.LEFT);
+		monthLabel.setVerticalAlignment(JLabel.TOP);
+		monthLabel.setBorder(BorderFactory.createEmptyBorder(0, 4, 0, 4));
+
+		header = new Header();
+		renderer = new JCalendarDayGrid.DefaultDayRenderer();
+		updateMetrics();
+
+		setOpaque(true);
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent event) {
+				if (event.getButton() != MouseEvent.BUTTON1)
+					return;
+				long epochDay = getEpochDayAt(event.getX(), event.getY());
+				if (epochDay == Long.MIN_VALUE)
+					return;
+				if (selectionModel != null)
+					selectionModel.select(epochDay, event.isControlDown() || event.isMetaDown(), event.isShiftDown());
+				selectDate(LocalDate.ofEpochDay(epochDay));
+			}
+		});
+
+		JTickScheduler.getInstance().subscribe(this, new JTickScheduler.TickListener() {
+			@Override
+			public void onTick() {
+				updateCurrentDay();
+			}
+		});
+
+		currentEpochDay = JTickScheduler.getInstance().getSnapshot().getEpochDay();
+		selectedEpochDay = Math.max(fromEpochDay, Math.min(toEpochDay, currentEpochDay));
+	}
+
+	/**
+	 * Selects the specified date, scrolls it into view and repaints the weeks
+	 * that changed. This method will notify the listeners about the change.
+	 *
+	 * @param date The date to select.
+	 * @throws IllegalArgumentException if the date is not displayed
+	 */
+	public void selectDate(LocalDate date) {
+		long start = JDateTimeMetrics.start();
+		long epochDay = date.toEpochDay();
+		int row = getRow(epochDay);
+		if (row < 0)
+			throw new IllegalArgumentException("Date is out of range: " + date);
+		long oldEpochDay = selectedEpochDay;
+		selectedEpochDay = epochDay;
+		if (JCalendarMonthGrid.getMonthValue(oldEpochDay) != JCalendarMonthGrid.getMonthValue(epochDay)
+				|| Math.abs(epochDay - oldEpochDay) > 31L)
+			repaint();
+		else {
+			repaintDays(oldEpochDay, oldEpochDay);
+			repaintDays(epochDay, epochDay);
+		}
+		scrollRectToVisible(new Rectangle(0, row * rowHeight, getWidth(), rowHeight));
+		JDateTimeMetrics.recordSelectDate(this, start, 2);
+		if (epochDay != oldEpochDay)
+			delivery.fire(date);
+	}
+
+	/**
+	 * Gets the selected date.
+	 *
+	 * @return The selected date.
+	 */
+	public LocalDate getSelectedDate() {
+		return LocalDate.ofEpochDay(selectedEpochDay);
+	}
+
+	/**
+	 * Scrolls the week containing the specified date to the top of the view.
+	 *
+	 * @param date The date to scroll to.
+	 */
+	public void scrollToDate(LocalDate date) {
+		int row = getRow(date.toEpochDay());
+		if (row < 0)
+			return;
+		Rectangle visible = getVisibleRect();
+		scrollRectToVisible(new Rectangle(0, row * rowHeight, getWidth(), Math.max(rowHeight, visible.height)));
+	}
+
+	/**
+	 * Adds a listener to receive notifications when selected date is changed.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addListener(CalendarListener listener) {
+		delivery.addListener(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(CalendarListener listener) {
+		delivery.removeListener(listener);
+	}
+
+	/**
+	 * Gets the delivery that notifies the listeners, which can be configured to
+	 * coalesce bursts of selections or to notify the listeners asynchronously.
+	 *
+	 * @return The listener delivery.
+	 */
+	public JListenerDelivery<CalendarListener, LocalDate> getListenerDelivery() {
+		return delivery;
+	}
+
+	/**
+	 * Sets the renderer used to paint the day cells.
+	 *
+	 * @param renderer The day renderer.
+	 */
+	public void setDayRenderer(JCalendarDayGrid.DayRenderer renderer) {
+		if (renderer == null)
+			throw new IllegalArgumentException("Day renderer must not be null");
+		this.renderer = renderer;
+		updateMetrics();
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Gets the renderer used to paint the day cells.
+	 *
+	 * @return The day renderer.
+	 */
+	public JCalendarDayGrid.DayRenderer getDayRenderer() {
+		return renderer;
+	}
+
+	/**
+	 * Sets the model of the entries displayed on the days. Only the weeks affected
+	 * by changes of the model are repainted.
+	 *
+	 * @param dataModel The data model, or null to display no entries.
+	 */
+	public void setDataModel(JCalendarDataModel<?> dataModel) {
+		if (this.dataModel != null)
+			this.dataModel.removeDataModelListener(dataModelListener);
+		this.dataModel = dataModel;
+		if (dataModel != null)
+			dataModel.addDataModelListener(dataModelListener);
+		repaint();
+	}
+
+	/**
+	 * Gets the model of the entries displayed on the days.
+	 *
+	 * @return The data model, or null if no entries are displayed.
+	 */
+	public JCalendarDataModel<?> getDataModel() {
+		return dataModel;
+	}
+
+	/**
+	 * Sets the model of the selected days. When a selection model is set, the
+	 * days it contains are painted as selected, and clicking a day updates the
+	 * model: Ctrl toggles the day and Shift selects the interval from the anchor
+	 * of the model. The selected date remains the focused day.
+	 *
+	 * @param selectionModel The selection model, or null to select only the
+	 *                       selected date.
+	 */
+	public void setSelectionModel(JCalendarSelectionModel selectionModel) {
+		if (this.selectionModel != null)
+			this.selectionModel.removeSelectionListener(selectionListener);
+		this.selectionModel = selectionModel;
+		if (selectionModel != null)
+			selectionModel.addSelectionListener(selectionListener);
+		repaint();
+	}
+
+	/**
+	 * Gets the model of the selected days.
+	 *
+	 * @return The selection model, or null if only the selected date is selected.
+	 */
+	public JCalendarSelectionModel getSelectionModel() {
+		return selectionModel;
+	}
+
+	/**
+	 * Sets the business calendar that defines the non-working days, which are
+	 * painted with a distinct style.
+	 *
+	 * @param businessCalendar The business calendar, or null to treat every day
+	 *                         as a working day.
+	 */
+	public void setBusinessCalendar(JBusinessCalendar businessCalendar) {
+		this.businessCalendar = businessCalendar;
+		repaint();
+	}
+
+	/**
+	 * Gets the business calendar that defines the non-working days.
+	 *
+	 * @return The business calendar, or null if every day is a working day.
+	 */
+	public JBusinessCalendar getBusinessCalendar() {
+		return businessCalendar;
+	}
+
+	/**
+	 * Sets the clock that defines the current date. The current day marker moves
+	 * when the date of the clock changes.
+	 *
+	 * @param clock The clock, or null to use the clock of the
+	 *              {@link JTickScheduler}.
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+		updateCurrentDay();
+	}
+
+	/**
+	 * Gets the clock that defines the current date.
+	 *
+	 * @return The clock, or null if the clock of the {@link JTickScheduler} is
+	 *         used.
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+	private void updateCurrentDay() {
+		long today = JTickScheduler.getInstance().getSnapshot(clock).getEpochDay();
+		if (today == currentEpochDay)
+			return;
+		repaintDays(currentEpochDay, currentEpochDay);
+		currentEpochDay = today;
+		repaintDays(today, today);
+	}
+
+	@Override
+	public boolean isWorkingDay(long epochDay) {
+		return businessCalendar == null || businessCalendar.isWorkingDay(epochDay);
+	}
+
+	@Override
+	public int getEntryCount(long epochDay) {
+		return dataModel == null ? 0 : dataModel.getCount(epochDay);
+	}
+
+	@Override
+	public Object getDecoration(long epochDay) {
+		return null;
+	}
+
+	@Override
+	public boolean isDecorationLoaded(long epochDay) {
+		return false;
+	}
+
+	/**
+	 * Gets the number of weeks displayed.
+	 *
+	 * @return The number of weeks.
+	 */
+	public int getWeekCount() {
+		return weekCount;
+	}
+
+	/**
+	 * Gets the epoch day at the specified location.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The epoch day, or Long.MIN_VALUE if there is no day at the
+	 *         location.
+	 */
+	public long getEpochDayAt(int x, int y) {
+		int row = y / rowHeight;
+		int column = x < monthColumnWidth ? -1 : (x - monthColumnWidth) / getColumnWidth();
+		if (y < 0 || row >= weekCount || column < 0 || column >= JDateTimeUtils.getNumberOfDays())
+			return Long.MIN_VALUE;
+		return startEpochDay + (long) row * JDateTimeUtils.getNumberOfDays() + column;
+	}
+
+	private int getColumnWidth() {
+		return Math.max(1, (getWidth() - monthColumnWidth) / JDateTimeUtils.getNumberOfDays());
+	}
+
+	private String getMonthText(long packedDate) {
+		long key = packedDate >> 5;
+		int slot = (int) (key & 63L);
+		String text = monthTexts[slot];
+		if (text == null || monthTextKeys[slot] != key) {
+			text = names.formatMonthYearDate(LocalDate.of((int) (key >> 4), (int) (key & 15L), 1));
+			monthTexts[slot] = text;
+			monthTextKeys[slot] = key;
+		}
+		return text;
+	}
+
+	private int getRow(long epochDay) {
+		long row = Math.floorDiv(epochDay - startEpochDay, JDateTimeUtils.getNumberOfDays());
+		return row < 0L || row >= weekCount ? -1 : (int) row;
+	}
+
+	private void repaintDays(long fromEpochDay, long toEpochDay) {
+		int firstRow = getRow(Math.max(fromEpochDay, startEpochDay));
+		int lastRow = getRow(Math.min(toEpochDay, startEpochDay + (long) weekCount * JDateTimeUtils.getNumberOfDays() - 1));
+		if (firstRow < 0 || lastRow < 0)
+			return;
+		repaint(0, firstRow * rowHeight, getWidth(), (lastRow - firstRow + 1) * rowHeight);
+	}
+
+	private void updateRange() {
+		int days = JDateTimeUtils.getNumberOfDays();
+		startEpochDay = fromEpochDay - names.getColumn(fromEpochDay);
+		long endEpochDay = toEpochDay + days - 1 - names.getColumn(toEpochDay);
+		weekCount = (int) ((endEpochDay - startEpochDay + 1) / days);
+	}
+
+	private void updateMetrics() {
+		Dimension size = renderer.getDayRendererComponent(this, startEpochDay, 30, true, true, true)
+				.getPreferredSize();
+		cellWidth = Math.max(1, size.width + 8);
+		rowHeight = Math.max(1, size.height + 8);
+		monthColumnWidth = 0;
+		for (int month = 1; month <= 12; month++) {
+			monthLabel.setText(names.formatMonthYearDate(LocalDate.of(2000, month, 1)));
+			monthColumnWidth = Math.max(monthColumnWidth, monthLabel.getPreferredSize().width);
+		}
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		long start = JDateTimeMetrics.start();
+		if (isOpaque()) {
+			g.setColor(getBackground());
+			g.fillRect(0, 0, getWidth(), getHeight());
+		}
+		g.getClipBounds(clipBounds);
+		int days = JDateTimeUtils.getNumberOfDays();
+		int firstRow = Math.max(0, clipBounds.y / rowHeight);
+		int lastRow = Math.min(weekCount - 1, (clipBounds.y + clipBounds.height - 1) / rowHeight);
+		long today = currentEpochDay;
+		int selectedMonth = JCalendarMonthGrid.getMonthValue(selectedEpochDay);
+		int width = getColumnWidth();
+		for (int row = firstRow; row <= lastRow; row++) {
+			int y = row * rowHeight;
+			long weekEpochDay = startEpochDay + (long) row * days;
+			for (int column = 0; column < days; column++) {
+				long epochDay = weekEpochDay + column;
+				long packedDate = JCalendarMonthGrid.getPackedDate(epochDay);
+				int dayOfMonth = (int) (packedDate & 31L);
+				if (dayOfMonth == 1 || row == firstRow && column == 0) {
+					monthLabel.setText(getMonthText(packedDate));
+					rendererPane.paintComponent(g, monthLabel, this, 0, y, monthColumnWidth, rowHeight, true);
+				}
+				int x = monthColumnWidth + column * width;
+				Component component = renderer.getDayRendererComponent(this, epochDay, dayOfMonth,
+						selectionModel == null ? epochDay == selectedEpochDay : selectionModel.contains(epochDay),
+						epochDay == today,
+						((packedDate >> 5) & 15L) == selectedMonth);
+				rendererPane.paintComponent(g, component, this, x, y, width, rowHeight, true);
+			}
+		}
+		rendererPane.removeAll();
+		JDateTimeMetrics.recordPaint(this, start);
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		if (isPreferredSizeSet())
+			return super.getPreferredSize();
+		return new Dimension(monthColumnWidth + cellWidth * JDateTimeUtils.getNumberOfDays(),
+				(int) Math.min(Integer.MAX_VALUE, (long) rowHeight * weekCount));
+	}
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		return new Dimension(monthColumnWidth + cellWidth * JDateTimeUtils.getNumberOfDays(),
+				rowHeight * JDateTimeUtils.getNumberOfWeeks());
+	}
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+		if (orientation == SwingConstants.HORIZONTAL)
+			return cellWidth;
+		int offset = visibleRect.y % rowHeight;
+		return direction < 0 ? (offset == 0 ? rowHeight : offset) : rowHeight - offset;
+	}
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		if (orientation == SwingConstants.HORIZONTAL)
+			return visibleRect.width;
+		return Math.max(rowHeight, visibleRect.height / rowHeight * rowHeight);
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return true;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return false;
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		Container parent = SwingUtilities.getUnwrappedParent(this);
+		if (parent instanceof JViewport && parent.getParent() instanceof JScrollPane) {
+			JScrollPane scrollPane = (JScrollPane) parent.getParent();
+			if (scrollPane.getViewport().getView() == this)
+				scrollPane.setColumnHeaderView(header);
+			scrollToDate(getSelectedDate().minusWeeks(2));
+		}
+	}
+
+	/**
+	 * Sets the locale of the day and month names and the first day of the week.
+	 *
+	 * @param locale The locale.
+	 */
+	@Override
+	public void setLocale(Locale locale) {
+		super.setLocale(locale);
+		if (monthLabel == null)
+			return;
+		names = JDateTimeNames.get(locale);
+		Arrays.fill(monthTexts, null);
+		updateRange();
+		updateMetrics();
+		revalidate();
+		repaint();
+		header.revalidate();
+		header.repaint();
+	}
+
+	/**
+	 * Gets the names of the locale of this list.
+	 *
+	 * @return The names.
+	 */
+	public JDateTimeNames getNames() {
+		return names;
+	}
+
+	@Override
+	public void updateUI() {
+		super.updateUI();
+		if (monthLabel != null) {
+			SwingUtilities.updateComponentTreeUI(monthLabel);
+			SwingUtilities.updateComponentTreeUI(header);
+			if (renderer instanceof Component)
+				SwingUtilities.updateComponentTreeUI((Component) renderer);
+			updateMetrics();
+		}
+	}
+
+	private final class Header extends JComponent {
+
+		private static final long serialVersionUID = 1L;
+
+		private final JLabel dayLabel;
+
+		private Header() {
+			dayLabel = new JLabel();
+			dayLabel.setHorizontalAlignment(JLabel.CENTER);
+			dayLabel.setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, SystemColor.textText));
+			setOpaque(true);
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			g.setColor(getBackground());
+			g.fillRect(0, 0, getWidth(), getHeight());
+			int days = JDateTimeUtils.getNumberOfDays();
+			int width = getColumnWidth();
+			for (int column = 0; column < days; column++) {
+				dayLabel.setText(names.getColumnDayName(column));
+				rendererPane.paintComponent(g, dayLabel, this, monthColumnWidth + column * width, 0, width,
+						getHeight(), true);
+			}
+			rendererPane.removeAll();
+		}
+
+		@Override
+		public Dimension getPreferredSize() {
+			dayLabel.setText(names.getColumnDayName(0));
+			return new Dimension(JCalendarWeekList.this.getPreferredSize().width,
+					dayLabel.getPreferredSize().height);
+		}
+
+	}
+
+}
@@ -1,12 +1,27 @@
 package kaba4cow.jdtm;
 
 import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.time.Clock;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 import javax.swing.JPanel;
 import javax.swing.Timer;
@@ -14,108 +29,290 @@ import javax.swing.UIManager;
 
 /**
  * A panel that displays a clock with hour, minute, and second hands. The clock
- * can display either real-time or a specified time.
+ * can display either real-time or a specified time. In smooth-sweep mode the
+ * hands of a real-time clock move continuously at a configurable frame rate,
+ * which is lowered automatically while frames exceed their time budget. A clock
+ * can display the time of another zone, and clocks of the same size share one
+ * pre-rendered dial image, so a wall of world clocks only paints its hands.
  */
 public class JClockPanel extends JPanel {
 
 	private static final long serialVersionUID = 1L;
 
+	private static final double hourDistance = 0.9d;
+	private static final double hourArrowRadius = 0.5d * hourDistance;
+	private static final double minuteArrowRadius = 0.7d * hourDistance;
+	private static final double secondArrowRadius = 0.9d * hourDistance;
+
+	private static final double delta12 = 1d / 12d;
+	private static final double delta60 = 1d / 60d;
+
+	private static final double[] cos60 = new double[60];
+	private static final double[] sin60 = new double[60];
+	static {
+		for (int i = 0; i < 60; i++) {
+			double angle = 2d * Math.PI * i * delta60 - 0.5d * Math.PI;
+			cos60[i] = Math.cos(angle);
+			sin60[i] = Math.sin(angle);
+		}
+	}
+
+	private static final String[] numerals = { "12", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11" };
+
+	private static final BasicStroke dotStroke = new BasicStroke(1f);
+	private static final BasicStroke secondStroke = new BasicStroke(1f);
+	private static final BasicStroke minuteStroke = new BasicStroke(1.5f);
+	private static final BasicStroke hourStroke = new BasicStroke(2f);
+
+	private static final int handPadding = 2;
+	private static final int centerDotRadius = 3;
+
+	private static final long nanosPerSecond = 1000000000L;
+	private static final long nanosPerDay = 86400L * nanosPerSecond;
+
+	private static final int maxSharedDials = 16;
+	private static final Map<DialKey, BufferedImage> sharedDials = new LinkedHashMap<DialKey, BufferedImage>(16,
+			0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<DialKey, BufferedImage> eldest) {
+			return size() > maxSharedDials;
+		}
+	};
+
+	private Clock clock;
+	private ZoneId zone;
 	private boolean realTime;
-	private LocalTime clockTime;
+	private long clockNanoOfDay;
 	private double radius;
 
+	private boolean smoothSweep;
+	private int frameRate;
+	private long nextFrameNanos;
+	private long sweepBaseNanoOfDay;
+	private long sweepBaseNanos;
+
+	private final int[] handX;
+	private final int[] handY;
+	private int handsWidth;
+	private int handsHeight;
+	private double handsRadius;
+
+	private Color textColor;
+	private Color inactiveTextColor;
+
+	private Font numeralFont;
+	private final int[] numeralOffsetX;
+	private int numeralOffsetY;
+
+	private BufferedImage dialImage;
+	private DialKey dialKey;
+
 	/**
 	 * Constructs a JClockPanel that displays the current time.
 	 */
 	public JClockPanel() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a JClockPanel that displays the current time of a zone.
+	 *
+	 * @param zone The zone, or null to use the zone of the clock.
+	 */
+	public JClockPanel(ZoneId zone) {
 		super();
+		this.zone = zone;
 		realTime = true;
-		clockTime = LocalTime.now();
+		clockNanoOfDay = getCurrentNanoOfDay();
 		radius = 1d;
-		Timer timer = new Timer(500, new ActionListener() {
+		smoothSweep = false;
+		frameRate = 30;
+		handX = new int[3];
+		handY = new int[3];
+		numeralOffsetX = new int[12];
+		handsWidth = -1;
+		handsHeight = -1;
+		JTickScheduler.getInstance().subscribe(this, new JTickScheduler.TickListener() {
 			@Override
-			public void actionPerformed(ActionEvent e) {
-				if (realTime) {
-					clockTime = LocalTime.now();
-					repaint();
-				}
+			public void onTick() {
+				if (!realTime)
+					return;
+				updateSweepBase();
+				if (!SweepAnimator.instance.contains(JClockPanel.this))
+					updateClockTime(sweepBaseNanoOfDay);
+			}
+		});
+		addHierarchyListener(new HierarchyListener() {
+			@Override
+			public void hierarchyChanged(HierarchyEvent event) {
+				if ((event.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0)
+					updateAnimation();
 			}
 		});
-		timer.setInitialDelay(0);
-		timer.start();
 	}
 
 	@Override
 	protected void paintComponent(Graphics g) {
+		long start = JDateTimeMetrics.start();
+		long paintStart = smoothSweep ? System.nanoTime() : 0L;
 		super.paintComponent(g);
 		Graphics2D graphics = (Graphics2D) g;
 
+		graphics.drawImage(getDialImage(), 0, 0, getWidth(), getHeight(), null);
+
+		layoutHands();
 		int centerX = getWidth() / 2;
 		int centerY = getHeight() / 2;
-		double radius = this.radius * Math.min(centerX, centerY);
+		graphics.setColor(textColor);
+		graphics.setStroke(secondStroke);
+		graphics.drawLine(centerX, centerY, handX[0], handY[0]);
+		graphics.setStroke(minuteStroke);
+		graphics.drawLine(centerX, centerY, handX[1], handY[1]);
+		graphics.setStroke(hourStroke);
+		graphics.drawLine(centerX, centerY, handX[2], handY[2]);
+		graphics.fillOval(centerX - centerDotRadius, centerY - centerDotRadius, 2 * centerDotRadius,
+				2 * centerDotRadius);
+		if (smoothSweep)
+			SweepAnimator.instance.addPaintNanos(System.nanoTime() - paintStart);
+		JDateTimeMetrics.recordPaint(this, start);
+	}
 
-		double hourDistance = 0.9d;
-		double hourArrowRadius = 0.5d * hourDistance;
-		double minuteArrowRadius = 0.7d * hourDistance;
-		double secondArrowRadius = 0.9d * hourDistance;
+	@Override
+	public void updateUI() {
+		super.updateUI();
+		textColor = UIManager.getColor("textText");
+		inactiveTextColor = UIManager.getColor("textInactiveText");
+	}
 
-		double delta12 = 1d / 12d;
-		double delta60 = 1d / 60d;
+	/**
+	 * Gets the cached dial, rendered at the resolution of the device so that it
+	 * stays sharp when drawn back at logical size on a HiDPI screen.
+	 */
+	private BufferedImage getDialImage() {
+		int width = Math.max(1, getWidth());
+		int height = Math.max(1, getHeight());
+		GraphicsConfiguration configuration = getGraphicsConfiguration();
+		AffineTransform transform = configuration == null ? null : configuration.getDefaultTransform();
+		double scaleX = transform == null ? 1d : transform.getScaleX();
+		double scaleY = transform == null ? 1d : transform.getScaleY();
+		Font font = getFont();
+		if (dialImage == null
+				|| !dialKey.matches(width, height, scaleX, scaleY, radius, textColor, inactiveTextColor, font)) {
+			dialKey = new DialKey(width, height, scaleX, scaleY, radius, textColor, inactiveTextColor, font);
+			dialImage = sharedDials.get(dialKey);
+			if (dialImage == null) {
+				dialImage = new BufferedImage((int) Math.ceil(width * scaleX), (int) Math.ceil(height * scaleY),
+						BufferedImage.TYPE_INT_ARGB);
+				Graphics2D graphics = dialImage.createGraphics();
+				graphics.scale(scaleX, scaleY);
+				if (font != null)
+					graphics.setFont(font);
+				paintDial(graphics, dialKey);
+				graphics.dispose();
+				sharedDials.put(dialKey, dialImage);
+			}
+		}
+		return dialImage;
+	}
 
-		graphics.setStroke(new BasicStroke(1f));
+	private void paintDial(Graphics2D graphics, DialKey key) {
+		int centerX = getWidth() / 2;
+		int centerY = getHeight() / 2;
+		double radius = this.radius * Math.min(centerX, centerY);
+
+		graphics.setStroke(dotStroke);
+		graphics.setColor(key.inactiveTextColor);
 		for (int minute = 0; minute < 60; minute++)
 			if (minute % 5 != 0) {
-				double angle = calculateAngle(minute * delta60);
-				int x = centerX + (int) (hourDistance * radius * Math.cos(angle));
-				int y = centerY + (int) (hourDistance * radius * Math.sin(angle));
-				graphics.setColor(UIManager.getColor("textInactiveText"));
+				int x = centerX + (int) (hourDistance * radius * cos60[minute]);
+				int y = centerY + (int) (hourDistance * radius * sin60[minute]);
 				graphics.fillOval(x, y, 3, 3);
 			}
-		for (int hour = 1; hour <= 12; hour++) {
-			double angle = calculateAngle(hour * delta12);
-			int x = (int) (hourDistance * radius * Math.cos(angle));
-			int y = (int) (hourDistance * radius * Math.sin(angle));
-			graphics.setColor(UIManager.getColor("textText"));
-			drawCenteredString(graphics, Integer.toString(hour), centerX + x, centerY + y);
-		}
-
-		double secondValue = clockTime.getSecond() * delta60;
-		double minuteValue = (clockTime.getMinute() + secondValue) * delta60;
-		double hourValue = (clockTime.getHour() + minuteValue) * delta12;
-		graphics.setColor(UIManager.getColor("textText"));
-		{
-			double angle = calculateAngle(secondValue);
-			int x = (int) (secondArrowRadius * radius * Math.cos(angle));
-			int y = (int) (secondArrowRadius * radius * Math.sin(angle));
-			graphics.setStroke(new BasicStroke(1f));
-			graphics.drawLine(centerX, centerY, centerX + x, centerY + y);
-		}
-		{
-			double angle = calculateAngle(minuteValue);
-			int x = (int) (minuteArrowRadius * radius * Math.cos(angle));
-			int y = (int) (minuteArrowRadius * radius * Math.sin(angle));
-			graphics.setStroke(new BasicStroke(1.5f));
-			graphics.drawLine(centerX, centerY, centerX + x, centerY + y);
-		}
-		{
-			double angle = calculateAngle(hourValue);
-			int x = (int) (hourArrowRadius * radius * Math.cos(angle));
-			int y = (int) (hourArrowRadius * radius * Math.sin(angle));
-			graphics.setStroke(new BasicStroke(2f));
-			graphics.drawLine(centerX, centerY, centerX + x, centerY + y);
-		}
-		graphics.fillOval(centerX - 3, centerY - 3, 6, 6);
+		if (key.font != null)
+			layoutNumerals(key.font);
+		graphics.setColor(key.textColor);
+		for (int hour = 0; hour < 12; hour++) {
+			int x = centerX + (int) (hourDistance * radius * cos60[5 * hour]);
+			int y = centerY + (int) (hourDistance * radius * sin60[5 * hour]);
+			graphics.drawString(numerals[hour], x + numeralOffsetX[hour], y + numeralOffsetY);
+		}
 	}
 
-	private double calculateAngle(double value) {
-		return 2d * Math.PI * value - 0.5d * Math.PI;
+	private void layoutNumerals(Font font) {
+		if (font == numeralFont)
+			return;
+		numeralFont = font;
+		FontMetrics metrics = getFontMetrics(font);
+		for (int hour = 0; hour < 12; hour++)
+			numeralOffsetX[hour] = -metrics.stringWidth(numerals[hour]) / 2;
+		numeralOffsetY = -metrics.getHeight() / 2 + metrics.getAscent();
 	}
 
-	private void drawCenteredString(Graphics graphics, String text, int textX, int textY) {
-		FontMetrics metrics = graphics.getFontMetrics();
-		int x = textX - metrics.stringWidth(text) / 2;
-		int y = textY - metrics.getHeight() / 2 + metrics.getAscent();
-		graphics.drawString(text, x, y);
+	private void layoutHands() {
+		handsWidth = getWidth();
+		handsHeight = getHeight();
+		handsRadius = radius;
+
+		int centerX = handsWidth / 2;
+		int centerY = handsHeight / 2;
+		double radius = this.radius * Math.min(centerX, centerY);
+
+		long secondOfDay = clockNanoOfDay / nanosPerSecond;
+		int second = (int) (secondOfDay % 60L);
+		double secondValue;
+		if (smoothSweep) {
+			secondValue = (second + (clockNanoOfDay % nanosPerSecond) * 1e-9d) * delta60;
+			layoutHand(0, secondValue, secondArrowRadius * radius, centerX, centerY);
+		} else {
+			secondValue = second * delta60;
+			handX[0] = centerX + (int) (secondArrowRadius * radius * cos60[second]);
+			handY[0] = centerY + (int) (secondArrowRadius * radius * sin60[second]);
+		}
+		double minuteValue = (secondOfDay / 60L % 60L + secondValue) * delta60;
+		double hourValue = (secondOfDay / 3600L + minuteValue) * delta12;
+		layoutHand(1, minuteValue, minuteArrowRadius * radius, centerX, centerY);
+		layoutHand(2, hourValue, hourArrowRadius * radius, centerX, centerY);
+	}
+
+	private void layoutHand(int hand, double value, double length, int centerX, int centerY) {
+		double angle = calculateAngle(value);
+		handX[hand] = centerX + (int) (length * Math.cos(angle));
+		handY[hand] = centerY + (int) (length * Math.sin(angle));
+	}
+
+	private void updateClockTime(long nanoOfDay) {
+		clockNanoOfDay = nanoOfDay;
+		if (handsWidth != getWidth() || handsHeight != getHeight() || handsRadius != radius) {
+			repaint();
+			return;
+		}
+		int centerX = handsWidth / 2;
+		int centerY = handsHeight / 2;
+		int oldSecondX = handX[0], oldSecondY = handY[0];
+		int oldMinuteX = handX[1], oldMinuteY = handY[1];
+		int oldHourX = handX[2], oldHourY = handY[2];
+		layoutHands();
+		repaintHand(0, oldSecondX, oldSecondY, centerX, centerY);
+		repaintHand(1, oldMinuteX, oldMinuteY, centerX, centerY);
+		repaintHand(2, oldHourX, oldHourY, centerX, centerY);
+	}
+
+	private void repaintHand(int hand, int oldX, int oldY, int centerX, int centerY) {
+		int newX = handX[hand];
+		int newY = handY[hand];
+		if (oldX == newX && oldY == newY)
+			return;
+		int minX = Math.min(centerX - centerDotRadius, Math.min(oldX, newX)) - handPadding;
+		int minY = Math.min(centerY - centerDotRadius, Math.min(oldY, newY)) - handPadding;
+		int maxX = Math.max(centerX + centerDotRadius, Math.max(oldX, newX)) + handPadding;
+		int maxY = Math.max(centerY + centerDotRadius, Math.max(oldY, newY)) + handPadding;
+		repaint(minX, minY, maxX - minX + 1, maxY - minY + 1);
+	}
+
+	private double calculateAngle(double value) {
+		return 2d * Math.PI * value - 0.5d * Math.PI;
 	}
 
 	/**
@@ -124,7 +321,7 @@ public class JClockPanel extends JPanel {
 	 * @return The current time.
 	 */
 	public LocalTime getClockTime() {
-		return clockTime;
+		return LocalTime.ofNanoOfDay(clockNanoOfDay);
 	}
 
 	/**
@@ -136,14 +333,312 @@ public class JClockPanel extends JPanel {
 	public void setClockTime(LocalTime time) {
 		if (time == null) {
 			realTime = true;
-			clockTime = LocalTime.now();
+			updateSweepBase();
+			updateClockTime(sweepBaseNanoOfDay);
 		} else {
 			realTime = false;
-			clockTime = time;
+			updateClockTime(time.toNanoOfDay());
 		}
+		updateAnimation();
+	}
+
+	/**
+	 * Sets the clock of the real-time display. A fixed or offset clock displays a
+	 * deterministic or shifted time, such as the time of another zone.
+	 *
+	 * @param clock The clock, or null to use the clock of the
+	 *              {@link JTickScheduler}.
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+		if (realTime)
+			setClockTime(null);
+	}
+
+	/**
+	 * Gets the clock of the real-time display.
+	 *
+	 * @return The clock, or null if the clock of the {@link JTickScheduler} is
+	 *         used.
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Sets the zone of the real-time display. The instant of the clock is read
+	 * once per tick and shared by all clocks, and converted to the zone through
+	 * offsets that are cached until the next transition of the zone.
+	 *
+	 * @param zone The zone, or null to use the zone of the clock.
+	 */
+	public void setZone(ZoneId zone) {
+		if (Objects.equals(this.zone, zone))
+			return;
+		this.zone = zone;
+		if (realTime)
+			setClockTime(null);
+	}
+
+	/**
+	 * Gets the zone of the real-time display.
+	 *
+	 * @return The zone, or null if the zone of the clock is used.
+	 */
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	private long getCurrentNanoOfDay() {
+		JTimeSnapshot snapshot = JTickScheduler.getInstance().getSnapshot(clock);
+		return zone == null ? snapshot.getNanoOfDay() : snapshot.getNanoOfDay(zone);
+	}
+
+	private void updateSweepBase() {
+		JTimeSnapshot snapshot = JTickScheduler.getInstance().getSnapshot(clock);
+		sweepBaseNanoOfDay = zone == null ? snapshot.getNanoOfDay() : snapshot.getNanoOfDay(zone);
+		sweepBaseNanos = snapshot.nanoTime;
+	}
+
+	/**
+	 * Enables or disables the smooth-sweep mode. In smooth-sweep mode the second
+	 * hand of a real-time clock moves continuously instead of once per second.
+	 * The displayed time is derived from System.nanoTime and corrected against
+	 * the wall clock once per second, and only the regions swept by the hands are
+	 * repainted. All smooth-sweep clocks are animated by a single shared timer.
+	 *
+	 * @param smoothSweep true to enable the smooth-sweep mode
+	 */
+	public void setSmoothSweep(boolean smoothSweep) {
+		if (this.smoothSweep == smoothSweep)
+			return;
+		this.smoothSweep = smoothSweep;
+		updateAnimation();
 		repaint();
 	}
 
+	/**
+	 * Checks whether the smooth-sweep mode is enabled.
+	 *
+	 * @return true if the smooth-sweep mode is enabled
+	 */
+	public boolean isSmoothSweep() {
+		return smoothSweep;
+	}
+
+	/**
+	 * Sets the frame rate of the smooth-sweep mode. The clock is animated at a
+	 * lower rate while the frames of all smooth-sweep clocks exceed their budget.
+	 *
+	 * @param frameRate The number of frames per second.
+	 * @throws IllegalArgumentException if the frame rate is less than 1 or greater
+	 *                                  than 120
+	 */
+	public void setFrameRate(int frameRate) {
+		if (frameRate < 1)
+			throw new IllegalArgumentException("Frame rate must be >= 1");
+		if (frameRate > 120)
+			throw new IllegalArgumentException("Frame rate must be <= 120");
+		this.frameRate = frameRate;
+		SweepAnimator.instance.updateDelay();
+	}
+
+	/**
+	 * Gets the frame rate of the smooth-sweep mode.
+	 *
+	 * @return The number of frames per second.
+	 */
+	public int getFrameRate() {
+		return frameRate;
+	}
+
+	/**
+	 * Gets the frame rate at which the smooth-sweep mode currently animates the
+	 * clock, which is lower than the frame rate while frames exceed their budget.
+	 *
+	 * @return The number of frames per second.
+	 */
+	public int getEffectiveFrameRate() {
+		return Math.max(1, frameRate / SweepAnimator.instance.divisor);
+	}
+
+	private void updateAnimation() {
+		if (smoothSweep && realTime && isShowing())
+			SweepAnimator.instance.add(this);
+		else
+			SweepAnimator.instance.remove(this);
+	}
+
+	private void sweep(long nanos) {
+		if (nanos - nextFrameNanos < 0L)
+			return;
+		long interval = nanosPerSecond / getEffectiveFrameRate();
+		nextFrameNanos = Math.max(nextFrameNanos + interval, nanos - interval / 2L);
+		long nanoOfDay = Math.floorMod(sweepBaseNanoOfDay + nanos - sweepBaseNanos, nanosPerDay);
+		updateClockTime(nanoOfDay);
+	}
+
+	/**
+	 * Identifies a rendered dial in the cache of dials shared between clocks.
+	 */
+	private static final class DialKey {
+
+		private final int width;
+		private final int height;
+		private final double scaleX;
+		private final double scaleY;
+		private final double radius;
+		private final Color textColor;
+		private final Color inactiveTextColor;
+		private final Font font;
+
+		private DialKey(int width, int height, double scaleX, double scaleY, double radius, Color textColor,
+				Color inactiveTextColor, Font font) {
+			this.width = width;
+			this.height = height;
+			this.scaleX = scaleX;
+			this.scaleY = scaleY;
+			this.radius = radius;
+			this.textColor = textColor;
+			this.inactiveTextColor = inactiveTextColor;
+			this.font = font;
+		}
+
+		private boolean matches(int width, int height, double scaleX, double scaleY, double radius, Color textColor,
+				Color inactiveTextColor, Font font) {
+			return this.width == width && this.height == height && this.scaleX == scaleX && this.scaleY == scaleY
+					&& this.radius == radius
+					&& Objects.equals(this.textColor, textColor)
+					&& Objects.equals(this.inactiveTextColor, inactiveTextColor) && Objects.equals(this.font, font);
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object)
+				return true;
+			if (!(object instanceof DialKey))
+				return false;
+			DialKey key = (DialKey) object;
+			return key.matches(width, height, scaleX, scaleY, radius, textColor, inactiveTextColor, font);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(width, height, scaleX, scaleY, radius, textColor, inactiveTextColor, font);
+		}
+
+	}
+
+	/**
+	 * Drives all showing smooth-sweep clocks with one Swing timer running at the
+	 * highest frame rate. The cost of a frame is the time spent painting the
+	 * clocks plus the delay of the timer; while it exceeds the frame interval the
+	 * frame rates are halved, and they are doubled again after a second of frames
+	 * that cost less than half of the interval.
+	 */
+	private static final class SweepAnimator implements ActionListener {
+
+		private static final SweepAnimator instance = new SweepAnimator();
+
+		private static final int maxDivisor = 32;
+
+		private final Set<JClockPanel> clocks;
+		private final Timer timer;
+
+		private JClockPanel[] frameBuffer;
+		private long lastFrameNanos;
+		private long frameIntervalNanos;
+		private long paintNanos;
+		private int divisor;
+		private int calmFrames;
+
+		private SweepAnimator() {
+			clocks = Collections.newSetFromMap(new IdentityHashMap<JClockPanel, Boolean>());
+			frameBuffer = new JClockPanel[0];
+			divisor = 1;
+			timer = new Timer(1000, this);
+			timer.setCoalesce(true);
+		}
+
+		private boolean contains(JClockPanel clock) {
+			return clocks.contains(clock);
+		}
+
+		private void add(JClockPanel clock) {
+			if (!clocks.add(clock))
+				return;
+			clock.nextFrameNanos = System.nanoTime();
+			updateDelay();
+			if (!timer.isRunning()) {
+				lastFrameNanos = System.nanoTime();
+				frameIntervalNanos = timer.getInitialDelay() * 1000000L;
+				paintNanos = 0L;
+				timer.start();
+			}
+		}
+
+		private void remove(JClockPanel clock) {
+			if (!clocks.remove(clock))
+				return;
+			if (clocks.isEmpty()) {
+				timer.stop();
+				divisor = 1;
+				calmFrames = 0;
+			} else
+				updateDelay();
+		}
+
+		private void addPaintNanos(long nanos) {
+			paintNanos += nanos;
+		}
+
+		private void updateDelay() {
+			int frameRate = 1;
+			for (JClockPanel clock : clocks)
+				frameRate = Math.max(frameRate, clock.frameRate);
+			int delay = Math.max(1, 1000 * divisor / frameRate);
+			if (delay == timer.getDelay())
+				return;
+			timer.setDelay(delay);
+			timer.setInitialDelay(delay);
+			if (timer.isRunning())
+				timer.restart();
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent event) {
+			long nanos = System.nanoTime();
+			long interval = frameIntervalNanos;
+			long lateness = Math.max(0L, nanos - lastFrameNanos - interval);
+			long cost = paintNanos + lateness;
+			lastFrameNanos = nanos;
+			paintNanos = 0L;
+			if (cost > interval && divisor < maxDivisor) {
+				divisor *= 2;
+				calmFrames = 0;
+				updateDelay();
+			} else if (2L * cost < interval && divisor > 1) {
+				if (++calmFrames * interval >= nanosPerSecond) {
+					divisor /= 2;
+					calmFrames = 0;
+					updateDelay();
+				}
+			} else
+				calmFrames = 0;
+			frameIntervalNanos = timer.getDelay() * 1000000L;
+			int count = clocks.size();
+			if (frameBuffer.length < count)
+				frameBuffer = new JClockPanel[count];
+			JClockPanel[] frame = clocks.toArray(frameBuffer);
+			for (int i = 0; i < count; i++) {
+				JClockPanel clock = frame[i];
+				frame[i] = null;
+				clock.sweep(nanos);
+			}
+		}
+
+	}
+
 	/**
 	 * Sets the scale of the clock.
 	 *
@@ -151,6 +646,7 @@ public class JClockPanel extends JPanel {
 	 */
 	public void setRadius(double radius) {
 		this.radius = radius;
+		repaint();
 	}
 
 }
@@ -0,0 +1,126 @@
+package kaba4cow.jdtm;
+
+import java.awt.Component;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EventObject;
+
+import javax.swing.AbstractCellEditor;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableCellEditor;
+
+/**
+ * A table cell editor for LocalDate, LocalTime and LocalDateTime values. The
+ * editor is a {@link JDateTimeField} that opens the shared popup calendar and
+ * time chooser of the window when editing starts. Editing stops when the popup
+ * is closed, and is canceled when the popup is closed with Escape.
+ */
+public class JDateTimeCellEditor extends AbstractCellEditor implements TableCellEditor {
+
+	private static final long serialVersionUID = 1L;
+
+	private final JDateTimeField field;
+
+	private int clickCountToStart;
+
+	/**
+	 * Constructs a new JDateTimeCellEditor.
+	 *
+	 * @param form The parts to edit. Valid values are JDateTimeField.DATE,
+	 *             JDateTimeField.TIME, or JDateTimeField.DATE_TIME. The edited
+	 *             value is a LocalDate, a LocalTime or a LocalDateTime
+	 *             respectively.
+	 * @throws IllegalArgumentException if the form is not valid
+	 */
+	public JDateTimeCellEditor(int form) {
+		super();
+		field = new JDateTimeField(form);
+		clickCountToStart = 2;
+		field.addPropertyChangeListener("popupVisible", new PropertyChangeListener() {
+			@Override
+			public void propertyChange(PropertyChangeEvent event) {
+				if (!Boolean.FALSE.equals(event.getNewValue()))
+					return;
+				if (field.isPopupCanceled())
+					cancelCellEditing();
+				else
+					stopCellEditing();
+			}
+		});
+	}
+
+	/**
+	 * Gets the field used to edit the values.
+	 *
+	 * @return The field.
+	 */
+	public JDateTimeField getField() {
+		return field;
+	}
+
+	/**
+	 * Sets the number of clicks needed to start editing.
+	 *
+	 * @param clickCountToStart The number of clicks.
+	 * @throws IllegalArgumentException if the number of clicks is less than 1
+	 */
+	public void setClickCountToStart(int clickCountToStart) {
+		if (clickCountToStart < 1)
+			throw new IllegalArgumentException("Click count must be >= 1");
+		this.clickCountToStart = clickCountToStart;
+	}
+
+	/**
+	 * Gets the number of clicks needed to start editing.
+	 *
+	 * @return The number of clicks.
+	 */
+	public int getClickCountToStart() {
+		return clickCountToStart;
+	}
+
+	@Override
+	public boolean isCellEditable(EventObject event) {
+		if (event instanceof MouseEvent)
+			return ((MouseEvent) event).getClickCount() >= clickCountToStart;
+		return true;
+	}
+
+	@Override
+	public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row,
+			int column) {
+		if (value instanceof LocalDateTime)
+			field.setDateTime((LocalDateTime) value);
+		else if (value instanceof LocalDate)
+			field.setDateTime(((LocalDate) value).atStartOfDay());
+		else if (value instanceof LocalTime)
+			field.setTime((LocalTime) value);
+		else
+			field.setDateTime(null);
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				field.showPopup();
+			}
+		});
+		return field;
+	}
+
+	@Override
+	public Object getCellEditorValue() {
+		switch (field.getForm()) {
+		case JDateTimeField.DATE:
+			return field.getDate();
+		case JDateTimeField.TIME:
+			return field.getTime();
+		default:
+			return field.getDateTime();
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+package kaba4cow.jdtm;
+
+import java.awt.Component;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * A table cell renderer that displays LocalDate, LocalTime and LocalDateTime
+ * values as text formatted by {@link JDateTimeUtils}. The text is kept in a
+ * bounded cache keyed by epoch day and second of day, so scrolling through a
+ * large table formats each distinct value once and the steady-state frames do
+ * not allocate. Other values are displayed as by the default renderer.
+ */
+public class JDateTimeCellRenderer extends DefaultTableCellRenderer {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int defaultCacheSize = 4096;
+
+	private final JDateTimeTextCache cache;
+
+	/**
+	 * Constructs a new JDateTimeCellRenderer with the default cache size.
+	 *
+	 * @param form The parts to display. Valid values are JDateTimeField.DATE,
+	 *             JDateTimeField.TIME, or JDateTimeField.DATE_TIME.
+	 * @throws IllegalArgumentException if the form is not valid
+	 */
+	public JDateTimeCellRenderer(int form) {
+		this(form, defaultCacheSize);
+	}
+
+	/**
+	 * Constructs a new JDateTimeCellRenderer.
+	 *
+	 * @param form      The parts to display. Valid values are
+	 *                  JDateTimeField.DATE, JDateTimeField.TIME, or
+	 *                  JDateTimeField.DATE_TIME.
+	 * @param cacheSize The number of cached texts, rounded up to a power of two.
+	 * @throws IllegalArgumentException if the form is not valid or the cache
+	 *                                  size is less than 1 or greater than 2^20
+	 */
+	public JDateTimeCellRenderer(int form, int cacheSize) {
+		super();
+		cache = new JDateTimeTextCache(form, cacheSize);
+	}
+
+	/**
+	 * Gets the parts displayed by this renderer.
+	 *
+	 * @return The form, one of JDateTimeField.DATE, JDateTimeField.TIME, or
+	 *         JDateTimeField.DATE_TIME.
+	 */
+	public int getForm() {
+		return cache.getForm();
+	}
+
+	@Override
+	protected void setValue(Object value) {
+		String text = cache.getText(value);
+		if (text == null)
+			super.setValue(value);
+		else
+			setText(text);
+	}
+
+	/**
+	 * A list cell renderer that displays LocalDate, LocalTime and LocalDateTime
+	 * values as text formatted by {@link JDateTimeUtils}, with the same bounded
+	 * cache as the table cell renderer.
+	 */
+	public static class ListRenderer extends DefaultListCellRenderer {
+
+		private static final long serialVersionUID = 1L;
+
+		private final JDateTimeTextCache cache;
+
+		/**
+		 * Constructs a new ListRenderer with the default cache size.
+		 *
+		 * @param form The parts to display. Valid values are JDateTimeField.DATE,
+		 *             JDateTimeField.TIME, or JDateTimeField.DATE_TIME.
+		 * @throws IllegalArgumentException if the form is not valid
+		 */
+		public ListRenderer(int form) {
+			this(form, defaultCacheSize);
+		}
+
+		/**
+		 * Constructs a new ListRenderer.
+		 *
+		 * @param form      The parts to display. Valid values are
+		 *                  JDateTimeField.DATE, JDateTimeField.TIME, or
+		 *                  JDateTimeField.DATE_TIME.
+		 * @param cacheSize The number of cached texts, rounded up to a power of
+		 *                  two.
+		 * @throws IllegalArgumentException if the form is not valid or the cache
+		 *                                  size is less than 1 or greater than
+		 *                                  2^20
+		 */
+		public ListRenderer(int form, int cacheSize) {
+			super();
+			cache = new JDateTimeTextCache(form, cacheSize);
+		}
+
+		/**
+		 * Gets the parts displayed by this renderer.
+		 *
+		 * @return The form, one of JDateTimeField.DATE, JDateTimeField.TIME, or
+		 *         JDateTimeField.DATE_TIME.
+		 */
+		public int getForm() {
+			return cache.getForm();
+		}
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
+				boolean cellHasFocus) {
+			String text = cache.getText(value);
+			return super.getListCellRendererComponent(list, text == null ? value : text, index, isSelected,
+					cellHasFocus);
+		}
+
+	}
+
+}
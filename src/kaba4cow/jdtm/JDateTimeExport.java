@@ -0,0 +1,394 @@
+package kaba4cow.jdtm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk formatting of dates and times in the formats of {@link JDateTimeUtils}
+ * for large exports. Epoch days are written as dd.MM.yyyy and seconds of day as
+ * HH:mm, each followed by a separator, directly into a char array, a byte
+ * buffer or a file channel without creating strings. Every record has the same
+ * length, so the work can be split across the threads of a fork-join pool that
+ * write disjoint ranges of the output in the order of the input. All values are
+ * validated before anything is written, so an out of range value leaves the
+ * output untouched. Instances are immutable and can be shared between threads.
+ */
+public final class JDateTimeExport {
+
+	private static final int minEpochDay = -719528;
+	private static final int maxEpochDay = 2932896;
+	private static final int secondsPerDay = 86400;
+
+	private static final int taskSize = 16384;
+	private static final int channelChunkSize = 8192;
+
+	private static final ThreadLocal<ByteBuffer> channelBuffers = new ThreadLocal<>();
+
+	private static final byte[] digits = new byte[200];
+	static {
+		for (int i = 0; i < 100; i++) {
+			digits[2 * i] = (byte) ('0' + i / 10);
+			digits[2 * i + 1] = (byte) ('0' + i % 10);
+		}
+	}
+
+	private final byte separator;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructs a new JDateTimeExport that formats sequentially on the calling
+	 * thread.
+	 *
+	 * @param separator the ASCII character written after every date or time, such
+	 *                  as a line feed or a column delimiter
+	 * @throws IllegalArgumentException if the separator is not an ASCII character
+	 */
+	public JDateTimeExport(char separator) {
+		this(separator, null);
+	}
+
+	/**
+	 * Constructs a new JDateTimeExport that formats large arrays in parallel on a
+	 * fork-join pool.
+	 *
+	 * @param separator the ASCII character written after every date or time, such
+	 *                  as a line feed or a column delimiter
+	 * @param pool      the pool to format on, or null to format sequentially on
+	 *                  the calling thread
+	 * @throws IllegalArgumentException if the separator is not an ASCII character
+	 */
+	public JDateTimeExport(char separator, ForkJoinPool pool) {
+		if (separator > 127)
+			throw new IllegalArgumentException("Separator must be an ASCII character");
+		this.separator = (byte) separator;
+		this.pool = pool;
+	}
+
+	/**
+	 * Gets the separator written after every date or time.
+	 *
+	 * @return the separator
+	 */
+	public char getSeparator() {
+		return (char) separator;
+	}
+
+	/**
+	 * Gets the pool used to format in parallel.
+	 *
+	 * @return the pool, or null if formatting is sequential
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Gets the number of characters written per date, including the separator.
+	 *
+	 * @return the length of a date record
+	 */
+	public static int getDateRecordLength() {
+		return JDateTimeUtils.DATE_LENGTH + 1;
+	}
+
+	/**
+	 * Gets the number of characters written per time, including the separator.
+	 *
+	 * @return the length of a time record
+	 */
+	public static int getTimeRecordLength() {
+		return JDateTimeUtils.TIME_LENGTH + 1;
+	}
+
+	/**
+	 * Writes dates into a char array.
+	 *
+	 * @param epochDays the epoch days of the dates, from 01.01.0000 to 31.12.9999
+	 * @param from      the index of the first epoch day
+	 * @param count     the number of epoch days to write
+	 * @param chars     the array to write to
+	 * @param offset    the offset of the first character in the array
+	 * @return the number of characters written
+	 * @throws IllegalArgumentException  if an epoch day is out of range
+	 * @throws IndexOutOfBoundsException if a range exceeds an array
+	 */
+	public int writeDates(int[] epochDays, int from, int count, char[] chars, int offset) {
+		int length = checkRanges(epochDays.length, from, count, chars.length, offset, getDateRecordLength());
+		checkValues(epochDays, from, count, true);
+		run(new Task(epochDays, from, from + count, true, null, chars, offset));
+		return length;
+	}
+
+	/**
+	 * Writes dates into a byte buffer at its position, which is advanced by the
+	 * number of bytes written. Direct buffers are supported.
+	 *
+	 * @param epochDays the epoch days of the dates, from 01.01.0000 to 31.12.9999
+	 * @param from      the index of the first epoch day
+	 * @param count     the number of epoch days to write
+	 * @param buffer    the buffer to write to
+	 * @return the number of bytes written
+	 * @throws IllegalArgumentException  if an epoch day is out of range
+	 * @throws IndexOutOfBoundsException if a range exceeds the array or the
+	 *                                   remaining bytes of the buffer
+	 */
+	public int writeDates(int[] epochDays, int from, int count, ByteBuffer buffer) {
+		return write(epochDays, from, count, true, buffer);
+	}
+
+	/**
+	 * Writes dates into a file channel at its position. The dates are formatted
+	 * in chunks into a direct buffer reused by the calling thread; with a pool,
+	 * every chunk is large enough to be formatted in parallel.
+	 *
+	 * @param epochDays the epoch days of the dates, from 01.01.0000 to 31.12.9999
+	 * @param from      the index of the first epoch day
+	 * @param count     the number of epoch days to write
+	 * @param channel   the channel to write to
+	 * @return the number of bytes written
+	 * @throws IOException               if an I/O error occurs
+	 * @throws IllegalArgumentException  if an epoch day is out of range
+	 * @throws IndexOutOfBoundsException if the range exceeds the array
+	 */
+	public long writeDates(int[] epochDays, int from, int count, FileChannel channel) throws IOException {
+		return write(epochDays, from, count, true, channel);
+	}
+
+	/**
+	 * Writes times into a char array.
+	 *
+	 * @param secondsOfDay the seconds of day of the times (0 - 86399)
+	 * @param from         the index of the first second of day
+	 * @param count        the number of seconds of day to write
+	 * @param chars        the array to write to
+	 * @param offset       the offset of the first character in the array
+	 * @return the number of characters written
+	 * @throws IllegalArgumentException  if a second of day is out of range
+	 * @throws IndexOutOfBoundsException if a range exceeds an array
+	 */
+	public int writeTimes(int[] secondsOfDay, int from, int count, char[] chars, int offset) {
+		int length = checkRanges(secondsOfDay.length, from, count, chars.length, offset, getTimeRecordLength());
+		checkValues(secondsOfDay, from, count, false);
+		run(new Task(secondsOfDay, from, from + count, false, null, chars, offset));
+		return length;
+	}
+
+	/**
+	 * Writes times into a byte buffer at its position, which is advanced by the
+	 * number of bytes written. Direct buffers are supported.
+	 *
+	 * @param secondsOfDay the seconds of day of the times (0 - 86399)
+	 * @param from         the index of the first second of day
+	 * @param count        the number of seconds of day to write
+	 * @param buffer       the buffer to write to
+	 * @return the number of bytes written
+	 * @throws IllegalArgumentException  if a second of day is out of range
+	 * @throws IndexOutOfBoundsException if a range exceeds the array or the
+	 *                                   remaining bytes of the buffer
+	 */
+	public int writeTimes(int[] secondsOfDay, int from, int count, ByteBuffer buffer) {
+		return write(secondsOfDay, from, count, false, buffer);
+	}
+
+	/**
+	 * Writes times into a file channel at its position. The times are formatted
+	 * in chunks into a direct buffer reused by the calling thread; with a pool,
+	 * every chunk is large enough to be formatted in parallel.
+	 *
+	 * @param secondsOfDay the seconds of day of the times (0 - 86399)
+	 * @param from         the index of the first second of day
+	 * @param count        the number of seconds of day to write
+	 * @param channel      the channel to write to
+	 * @return the number of bytes written
+	 * @throws IOException               if an I/O error occurs
+	 * @throws IllegalArgumentException  if a second of day is out of range
+	 * @throws IndexOutOfBoundsException if the range exceeds the array
+	 */
+	public long writeTimes(int[] secondsOfDay, int from, int count, FileChannel channel) throws IOException {
+		return write(secondsOfDay, from, count, false, channel);
+	}
+
+	private int write(int[] values, int from, int count, boolean dates, ByteBuffer buffer) {
+		int recordLength = dates ? getDateRecordLength() : getTimeRecordLength();
+		int position = buffer.position();
+		int length = checkRanges(values.length, from, count, buffer.limit(), position, recordLength);
+		checkValues(values, from, count, dates);
+		run(new Task(values, from, from + count, dates, buffer, null, position));
+		buffer.position(position + length);
+		return length;
+	}
+
+	private long write(int[] values, int from, int count, boolean dates, FileChannel channel) throws IOException {
+		int recordLength = dates ? getDateRecordLength() : getTimeRecordLength();
+		checkRanges(values.length, from, count, Integer.MAX_VALUE, 0, 0);
+		checkValues(values, from, count, dates);
+		int chunkSize = pool == null ? channelChunkSize : taskSize * Math.max(2, pool.getParallelism());
+		ByteBuffer buffer = getChannelBuffer(Math.min(count, chunkSize) * getDateRecordLength());
+		long written = 0L;
+		for (int index = from, end = from + count; index < end;) {
+			int chunk = Math.min(end - index, chunkSize);
+			buffer.clear();
+			run(new Task(values, index, index + chunk, dates, buffer, null, 0));
+			buffer.limit(chunk * recordLength);
+			while (buffer.hasRemaining())
+				written += channel.write(buffer);
+			index += chunk;
+		}
+		return written;
+	}
+
+	private static ByteBuffer getChannelBuffer(int capacity) {
+		ByteBuffer buffer = channelBuffers.get();
+		if (buffer == null || buffer.capacity() < capacity) {
+			buffer = ByteBuffer.allocateDirect(Math.max(capacity, channelChunkSize * getDateRecordLength()));
+			channelBuffers.set(buffer);
+		}
+		return buffer;
+	}
+
+	private void run(Task task) {
+		if (pool == null || task.end - task.start <= taskSize)
+			task.compute();
+		else
+			pool.invoke(task);
+	}
+
+	private static int checkRanges(int valuesLength, int from, int count, int outputLength, int offset,
+			int recordLength) {
+		if (from < 0 || count < 0 || from > valuesLength - count)
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + from + " + " + count
+					+ ") out of bounds for length " + valuesLength);
+		long length = (long) count * recordLength;
+		if (offset < 0 || offset > outputLength - length)
+			throw new IndexOutOfBoundsException(
+					"Output of " + length + " from " + offset + " out of bounds for length " + outputLength);
+		return (int) length;
+	}
+
+	private final class Task extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] values;
+		private final int start;
+		private final int end;
+		private final boolean dates;
+		private final ByteBuffer buffer;
+		private final char[] chars;
+		private final int offset;
+
+		private Task(int[] values, int start, int end, boolean dates, ByteBuffer buffer, char[] chars, int offset) {
+			this.values = values;
+			this.start = start;
+			this.end = end;
+			this.dates = dates;
+			this.buffer = buffer;
+			this.chars = chars;
+			this.offset = offset;
+		}
+
+		@Override
+		protected void compute() {
+			int count = end - start;
+			if (pool != null && count > taskSize) {
+				int middle = start + count / 2;
+				int recordLength = dates ? getDateRecordLength() : getTimeRecordLength();
+				int middleOffset = offset + (middle - start) * recordLength;
+				invokeAll(new Task(values, start, middle, dates, buffer, chars, offset),
+						new Task(values, middle, end, dates, buffer, chars, middleOffset));
+				return;
+			}
+			if (chars != null)
+				writeChars();
+			else
+				writeBytes(buffer.duplicate());
+		}
+
+		private void writeChars() {
+			int index = offset;
+			for (int i = start; i < end; i++) {
+				if (dates) {
+					long packedDate = getPackedDate(values[i]);
+					int year = (int) (packedDate >> 9);
+					index = putDigits(chars, index, (int) (packedDate & 31L), '.');
+					index = putDigits(chars, index, (int) (packedDate >> 5 & 15L), '.');
+					index = putDigits(chars, index, year / 100, -1);
+					index = putDigits(chars, index, year % 100, separator);
+				} else {
+					int secondOfDay = getSecondOfDay(values[i]);
+					index = putDigits(chars, index, secondOfDay / 3600, ':');
+					index = putDigits(chars, index, secondOfDay / 60 % 60, separator);
+				}
+			}
+		}
+
+		private void writeBytes(ByteBuffer buffer) {
+			int index = offset;
+			for (int i = start; i < end; i++) {
+				if (dates) {
+					long packedDate = getPackedDate(values[i]);
+					int year = (int) (packedDate >> 9);
+					index = putDigits(buffer, index, (int) (packedDate & 31L), '.');
+					index = putDigits(buffer, index, (int) (packedDate >> 5 & 15L), '.');
+					index = putDigits(buffer, index, year / 100, -1);
+					index = putDigits(buffer, index, year % 100, separator);
+				} else {
+					int secondOfDay = getSecondOfDay(values[i]);
+					index = putDigits(buffer, index, secondOfDay / 3600, ':');
+					index = putDigits(buffer, index, secondOfDay / 60 % 60, separator);
+				}
+			}
+		}
+
+	}
+
+	private static void checkValues(int[] values, int from, int count, boolean dates) {
+		if (count == 0)
+			return;
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (int i = from, end = from + count; i < end; i++) {
+			min = Math.min(min, values[i]);
+			max = Math.max(max, values[i]);
+		}
+		if (dates) {
+			getPackedDate(min);
+			getPackedDate(max);
+		} else {
+			getSecondOfDay(min);
+			getSecondOfDay(max);
+		}
+	}
+
+	private static long getPackedDate(int epochDay) {
+		if (epochDay < minEpochDay || epochDay > maxEpochDay)
+			throw new IllegalArgumentException("Epoch day must be between " + minEpochDay + " and " + maxEpochDay);
+		return JCalendarMonthGrid.getPackedDate(epochDay);
+	}
+
+	private static int getSecondOfDay(int secondOfDay) {
+		if (secondOfDay < 0 || secondOfDay >= secondsPerDay)
+			throw new IllegalArgumentException("Second of day must be between 0 and " + (secondsPerDay - 1));
+		return secondOfDay;
+	}
+
+	private static int putDigits(char[] chars, int index, int value, int suffix) {
+		chars[index++] = (char) digits[2 * value];
+		chars[index++] = (char) digits[2 * value + 1];
+		if (suffix >= 0)
+			chars[index++] = (char) suffix;
+		return index;
+	}
+
+	private static int putDigits(ByteBuffer buffer, int index, int value, int suffix) {
+		buffer.put(index++, digits[2 * value]);
+		buffer.put(index++, digits[2 * value + 1]);
+		if (suffix >= 0)
+			buffer.put(index++, (byte) suffix);
+		return index;
+	}
+
+}
@@ -0,0 +1,435 @@
+package kaba4cow.jdtm;
+
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPopupMenu;
+import javax.swing.JRootPane;
+import javax.swing.KeyStroke;
+import javax.swing.UIManager;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+import kaba4cow.jdtm.JTimeChooser.TimeChooserListener;
+
+/**
+ * A compact field that displays a date, a time or both as formatted text and
+ * edits them in a popup calendar and time chooser. The popup is created on
+ * first use and shared by every field of the same window, and is attached to
+ * the field that opens it, so forms with hundreds of fields only build one
+ * calendar and one time chooser. Browsing the calendar does not change the
+ * field: clicking a day or pressing Enter commits the selected date, and
+ * Escape closes the popup and restores the value the field had when the popup
+ * was opened. The bound property "popupVisible" reports when the popup is
+ * opened for and closed from a field.
+ */
+public class JDateTimeField extends JLabel {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int DATE = 0;
+	public static final int TIME = 1;
+	public static final int DATE_TIME = 2;
+
+	private final JListenerDelivery<DateTimeFieldListener, LocalDateTime> delivery;
+
+	private final int form;
+
+	private LocalDateTime dateTime;
+	private boolean popupVisible;
+	private boolean popupCanceled;
+
+	/**
+	 * Constructs a new empty JDateTimeField with the specified form.
+	 *
+	 * @param form The parts to display. Valid values are DATE, TIME, or
+	 *             DATE_TIME.
+	 * @throws IllegalArgumentException if the form is not valid
+	 */
+	public JDateTimeField(int form) {
+		super();
+		if (form != DATE && form != TIME && form != DATE_TIME)
+			throw new IllegalArgumentException("Form must be DATE, TIME or DATE_TIME");
+		this.form = form;
+		this.dateTime = null;
+		this.popupVisible = false;
+		delivery = new JListenerDelivery<>(this,
+				new JListenerDelivery.Notifier<DateTimeFieldListener, LocalDateTime>() {
+					@Override
+					public void deliver(DateTimeFieldListener listener, LocalDateTime value) {
+						listener.onDateTimeChanged(JDateTimeField.this, value);
+					}
+				});
+		setOpaque(true);
+		setFocusable(true);
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent event) {
+				if (event.getButton() == MouseEvent.BUTTON1)
+					showPopup();
+			}
+		});
+		addKeyListener(new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent event) {
+				switch (event.getKeyCode()) {
+				case KeyEvent.VK_ENTER:
+					if (popupVisible) {
+						event.consume();
+						SharedPopup.get(getRootPane()).commit();
+					} else
+						showPopup();
+					return;
+				case KeyEvent.VK_ESCAPE:
+					if (popupVisible) {
+						event.consume();
+						SharedPopup.get(getRootPane()).cancel();
+					}
+					return;
+				case KeyEvent.VK_SPACE:
+				case KeyEvent.VK_DOWN:
+					showPopup();
+					return;
+				case KeyEvent.VK_DELETE:
+					setDateTime(null);
+					return;
+				}
+			}
+		});
+		updateText();
+	}
+
+	/**
+	 * Sets the date and time of this field. The listeners are notified if the
+	 * value changes.
+	 *
+	 * @param dateTime The new date and time, or null to clear the field.
+	 */
+	public void setDateTime(LocalDateTime dateTime) {
+		if (dateTime == null ? this.dateTime == null : dateTime.equals(this.dateTime))
+			return;
+		this.dateTime = dateTime;
+		updateText();
+		delivery.fire(dateTime);
+	}
+
+	/**
+	 * Gets the date and time of this field.
+	 *
+	 * @return The date and time, or null if the field is empty.
+	 */
+	public LocalDateTime getDateTime() {
+		return dateTime;
+	}
+
+	/**
+	 * Sets the date of this field and keeps its time, or midnight if the field is
+	 * empty.
+	 *
+	 * @param date The new date, or null to clear the field.
+	 */
+	public void setDate(LocalDate date) {
+		setDateTime(date == null ? null : date.atTime(dateTime == null ? LocalTime.MIDNIGHT : dateTime.toLocalTime()));
+	}
+
+	/**
+	 * Gets the date of this field.
+	 *
+	 * @return The date, or null if the field is empty.
+	 */
+	public LocalDate getDate() {
+		return dateTime == null ? null : dateTime.toLocalDate();
+	}
+
+	/**
+	 * Sets the time of this field and keeps its date, or the current date if the
+	 * field is empty.
+	 *
+	 * @param time The new time, or null to clear the field.
+	 */
+	public void setTime(LocalTime time) {
+		setDateTime(time == null ? null
+				: (dateTime == null ? JTickScheduler.getInstance().getSnapshot().getDate() : dateTime.toLocalDate())
+						.atTime(time));
+	}
+
+	/**
+	 * Gets the time of this field.
+	 *
+	 * @return The time, or null if the field is empty.
+	 */
+	public LocalTime getTime() {
+		return dateTime == null ? null : dateTime.toLocalTime();
+	}
+
+	/**
+	 * Gets the parts displayed by this field.
+	 *
+	 * @return The form, one of DATE, TIME, or DATE_TIME.
+	 */
+	public int getForm() {
+		return form;
+	}
+
+	private void updateText() {
+		if (dateTime == null) {
+			setText(" ");
+			return;
+		}
+		StringBuilder builder = new StringBuilder(16);
+		if (form != TIME)
+			JDateTimeUtils.appendDate(builder, dateTime.toLocalDate());
+		if (form == DATE_TIME)
+			builder.append(' ');
+		if (form != DATE)
+			JDateTimeUtils.appendTime(builder, dateTime.toLocalTime());
+		setText(builder.toString());
+	}
+
+	/**
+	 * Opens the shared popup of the window below this field. The popup is created
+	 * on first use.
+	 */
+	public void showPopup() {
+		if (!isEnabled() || !isShowing())
+			return;
+		JRootPane rootPane = getRootPane();
+		if (rootPane == null)
+			return;
+		requestFocusInWindow();
+		SharedPopup.get(rootPane).show(this);
+	}
+
+	/**
+	 * Checks whether the shared popup is open for this field.
+	 *
+	 * @return true if the popup is open for this field
+	 */
+	public boolean isPopupVisible() {
+		return popupVisible;
+	}
+
+	/**
+	 * Checks whether the popup was last closed with Escape, which restored the
+	 * value the field had when the popup was opened.
+	 *
+	 * @return true if the popup was canceled
+	 */
+	boolean isPopupCanceled() {
+		return popupCanceled;
+	}
+
+	private void setPopupVisible(boolean popupVisible, boolean popupCanceled) {
+		boolean oldPopupVisible = this.popupVisible;
+		this.popupVisible = popupVisible;
+		this.popupCanceled = popupCanceled;
+		firePropertyChange("popupVisible", oldPopupVisible, popupVisible);
+	}
+
+	/**
+	 * Adds a listener to receive notifications when the date and time change.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addListener(DateTimeFieldListener listener) {
+		delivery.addListener(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(DateTimeFieldListener listener) {
+		delivery.removeListener(listener);
+	}
+
+	/**
+	 * Gets the delivery that notifies the listeners, which can be configured to
+	 * coalesce bursts of changes or to notify the listeners asynchronously.
+	 *
+	 * @return The listener delivery.
+	 */
+	public JListenerDelivery<DateTimeFieldListener, LocalDateTime> getListenerDelivery() {
+		return delivery;
+	}
+
+	@Override
+	public void updateUI() {
+		super.updateUI();
+		setBorder(UIManager.getBorder("TextField.border"));
+		setBackground(UIManager.getColor("TextField.background"));
+		setForeground(UIManager.getColor("TextField.foreground"));
+		setFont(UIManager.getFont("TextField.font"));
+	}
+
+	/**
+	 * The popup of a window, which holds the calendar and time chooser shared by
+	 * the fields of the window. Navigating the calendar leaves the field alone;
+	 * clicking a day commits it to the field even if it is already selected, and
+	 * closes the popup of a date-only field. Enter commits the selected date and
+	 * closes the popup, and Escape restores the original value of the field and
+	 * closes the popup. Time changes are written to the field as they are made.
+	 */
+	private static final class SharedPopup implements TimeChooserListener, PopupMenuListener {
+
+		private final JPopupMenu popupMenu;
+		private final JCalendarPanel calendarPanel;
+		private final JTimeChooser timeChooser;
+
+		private JDateTimeField field;
+		private LocalDateTime originalDateTime;
+		private boolean canceled;
+		private boolean attaching;
+
+		private SharedPopup() {
+			popupMenu = new JPopupMenu();
+			popupMenu.setLayout(new BorderLayout());
+			popupMenu.addPopupMenuListener(this);
+			popupMenu.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT)
+					.put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "commit");
+			popupMenu.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT)
+					.put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "cancel");
+			popupMenu.getActionMap().put("commit", new AbstractAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public void actionPerformed(ActionEvent event) {
+					commit();
+				}
+			});
+			popupMenu.getActionMap().put("cancel", new AbstractAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public void actionPerformed(ActionEvent event) {
+					cancel();
+				}
+			});
+			calendarPanel = new JCalendarPanel();
+			calendarPanel.getDayGrid().addMouseListener(new MouseAdapter() {
+				@Override
+				public void mousePressed(MouseEvent event) {
+					JCalendarDayGrid dayGrid = calendarPanel.getDayGrid();
+					if (event.getButton() == MouseEvent.BUTTON1 && dayGrid.getCellAt(event.getX(), event.getY()) >= 0)
+						commitDate(dayGrid.getSelectedDate());
+				}
+			});
+			popupMenu.add(calendarPanel, BorderLayout.CENTER);
+			timeChooser = new JTimeChooser(JTimeChooser.HOURS_MINUTES);
+			timeChooser.addTimeChooserListener(this);
+			popupMenu.add(timeChooser, BorderLayout.SOUTH);
+			attaching = false;
+		}
+
+		private static SharedPopup get(JRootPane rootPane) {
+			SharedPopup popup = (SharedPopup) rootPane.getClientProperty(SharedPopup.class);
+			if (popup == null) {
+				popup = new SharedPopup();
+				rootPane.putClientProperty(SharedPopup.class, popup);
+			}
+			return popup;
+		}
+
+		private void show(JDateTimeField field) {
+			if (this.field != null && this.field != field)
+				this.field.setPopupVisible(false, false);
+			this.field = field;
+			originalDateTime = field.getDateTime();
+			canceled = false;
+			LocalDateTime dateTime = field.getDateTime();
+			if (dateTime == null)
+				dateTime = JTickScheduler.getInstance().getSnapshot().getDateTime();
+			attaching = true;
+			try {
+				calendarPanel.setVisible(field.getForm() != TIME);
+				timeChooser.setVisible(field.getForm() != DATE);
+				calendarPanel.selectDate(dateTime.toLocalDate());
+				timeChooser.setTime(dateTime.toLocalTime());
+			} finally {
+				attaching = false;
+			}
+			popupMenu.pack();
+			popupMenu.show(field, 0, field.getHeight());
+			field.setPopupVisible(true, false);
+		}
+
+		private void commitDate(LocalDate date) {
+			JDateTimeField field = this.field;
+			if (field == null)
+				return;
+			field.setDate(date);
+			if (field.getForm() == DATE)
+				popupMenu.setVisible(false);
+		}
+
+		private void commit() {
+			JDateTimeField field = this.field;
+			if (field == null)
+				return;
+			if (field.getForm() != TIME)
+				field.setDate(calendarPanel.getDayGrid().getSelectedDate());
+			popupMenu.setVisible(false);
+		}
+
+		private void cancel() {
+			JDateTimeField field = this.field;
+			if (field == null)
+				return;
+			canceled = true;
+			field.setDateTime(originalDateTime);
+			popupMenu.setVisible(false);
+		}
+
+		@Override
+		public void onTimeChanged(JTimeChooser source, LocalTime newTime) {
+			if (field != null && !attaching)
+				field.setTime(newTime);
+		}
+
+		@Override
+		public void popupMenuWillBecomeVisible(PopupMenuEvent event) {
+		}
+
+		@Override
+		public void popupMenuWillBecomeInvisible(PopupMenuEvent event) {
+			JDateTimeField field = this.field;
+			this.field = null;
+			if (field != null)
+				field.setPopupVisible(false, canceled);
+		}
+
+		@Override
+		public void popupMenuCanceled(PopupMenuEvent event) {
+		}
+
+	}
+
+	/**
+	 * Listener interface for receiving notifications when the date and time of a
+	 * JDateTimeField change.
+	 */
+	public static interface DateTimeFieldListener {
+
+		/**
+		 * Called when the date and time of the associated JDateTimeField change.
+		 *
+		 * @param source      The JDateTimeField whose value changed.
+		 * @param newDateTime The new date and time, or null if the field was
+		 *                    cleared.
+		 */
+		public void onDateTimeChanged(JDateTimeField source, LocalDateTime newDateTime);
+
+	}
+
+}
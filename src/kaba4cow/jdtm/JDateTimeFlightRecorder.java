@@ -0,0 +1,130 @@
+package kaba4cow.jdtm;
+
+import javax.swing.JComponent;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A metrics recorder that emits the metrics of the components as custom Java
+ * Flight Recorder events, so that they can be correlated with the other events
+ * of a recording. Install it with
+ * {@code JDateTimeMetrics.setRecorder(new JDateTimeFlightRecorder())}.
+ */
+public class JDateTimeFlightRecorder implements JDateTimeMetrics.Recorder {
+
+	private static final String category = "JDateTimeManagers";
+
+	@Override
+	public void selectDate(JComponent source, long durationNanos, int cellsRestyled) {
+		SelectDateEvent event = new SelectDateEvent();
+		if (event.isEnabled()) {
+			event.component = source.getClass().getName();
+			event.selectDuration = durationNanos;
+			event.cellsRestyled = cellsRestyled;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void paint(JComponent source, long durationNanos) {
+		PaintEvent event = new PaintEvent();
+		if (event.isEnabled()) {
+			event.component = source.getClass().getName();
+			event.paintDuration = durationNanos;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void listenerDispatch(JComponent source, long durationNanos, int listenerCount) {
+		ListenerDispatchEvent event = new ListenerDispatchEvent();
+		if (event.isEnabled()) {
+			event.component = source.getClass().getName();
+			event.dispatchDuration = durationNanos;
+			event.listenerCount = listenerCount;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void tickLag(long lagNanos, int subscriberCount) {
+		TickEvent event = new TickEvent();
+		if (event.isEnabled()) {
+			event.lag = lagNanos;
+			event.subscriberCount = subscriberCount;
+			event.commit();
+		}
+	}
+
+	@Name("kaba4cow.jdtm.SelectDate")
+	@Label("Select Date")
+	@Category(category)
+	@Description("A date was selected in a calendar component")
+	static class SelectDateEvent extends Event {
+
+		@Label("Component")
+		String component;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long selectDuration;
+
+		@Label("Cells Restyled")
+		int cellsRestyled;
+
+	}
+
+	@Name("kaba4cow.jdtm.Paint")
+	@Label("Paint")
+	@Category(category)
+	@Description("A component painted itself")
+	static class PaintEvent extends Event {
+
+		@Label("Component")
+		String component;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long paintDuration;
+
+	}
+
+	@Name("kaba4cow.jdtm.ListenerDispatch")
+	@Label("Listener Dispatch")
+	@Category(category)
+	@Description("A component notified its listeners")
+	static class ListenerDispatchEvent extends Event {
+
+		@Label("Component")
+		String component;
+
+		@Label("Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long dispatchDuration;
+
+		@Label("Listener Count")
+		int listenerCount;
+
+	}
+
+	@Name("kaba4cow.jdtm.Tick")
+	@Label("Tick")
+	@Category(category)
+	@Description("The shared tick scheduler notified its subscribers")
+	static class TickEvent extends Event {
+
+		@Label("Lag")
+		@Timespan(Timespan.NANOSECONDS)
+		long lag;
+
+		@Label("Subscriber Count")
+		int subscriberCount;
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package kaba4cow.jdtm;
+
+import javax.swing.JComponent;
+
+/**
+ * Optional instrumentation of the components. No metrics are recorded until a
+ * {@link Recorder} is installed with {@link #setRecorder(Recorder)}; while no
+ * recorder is installed the components do not even read the clock.
+ */
+public final class JDateTimeMetrics {
+
+	/**
+	 * A recorder that ignores all metrics.
+	 */
+	public static final Recorder NOOP = new Recorder() {
+	};
+
+	/**
+	 * Start time returned by {@link #start()} while metrics are disabled; a
+	 * measurement that started with it is not recorded even if a recorder is
+	 * installed before it ends.
+	 */
+	static final long NOT_STARTED = Long.MIN_VALUE;
+
+	private static volatile Recorder recorder = NOOP;
+	private static volatile boolean enabled = false;
+
+	private JDateTimeMetrics() {
+	}
+
+	/**
+	 * Installs the recorder that receives the metrics of all components.
+	 *
+	 * @param recorder the recorder to install, or null to disable metrics
+	 */
+	public static void setRecorder(Recorder recorder) {
+		if (recorder == null)
+			recorder = NOOP;
+		JDateTimeMetrics.recorder = recorder;
+		JDateTimeMetrics.enabled = recorder != NOOP;
+	}
+
+	/**
+	 * Gets the installed recorder.
+	 *
+	 * @return the installed recorder, or {@link #NOOP} if metrics are disabled
+	 */
+	public static Recorder getRecorder() {
+		return recorder;
+	}
+
+	/**
+	 * Checks whether a recorder is installed.
+	 *
+	 * @return true if metrics are recorded
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	static long start() {
+		return enabled ? System.nanoTime() : NOT_STARTED;
+	}
+
+	static void recordSelectDate(JComponent source, long startNanos, int cellsRestyled) {
+		if (startNanos != NOT_STARTED)
+			recorder.selectDate(source, System.nanoTime() - startNanos, cellsRestyled);
+	}
+
+	static void recordPaint(JComponent source, long startNanos) {
+		if (startNanos != NOT_STARTED)
+			recorder.paint(source, System.nanoTime() - startNanos);
+	}
+
+	static void recordListenerDispatch(JComponent source, long startNanos, int listenerCount) {
+		if (startNanos != NOT_STARTED)
+			recorder.listenerDispatch(source, System.nanoTime() - startNanos, listenerCount);
+	}
+
+	static void recordTickLag(long lagNanos, int subscriberCount) {
+		if (enabled)
+			recorder.tickLag(lagNanos, subscriberCount);
+	}
+
+	/**
+	 * Service provider interface for receiving metrics of the components. All
+	 * methods do nothing by default and are called on the Event Dispatch Thread,
+	 * except listenerDispatch, which is called on the listener executor when
+	 * listeners are notified asynchronously.
+	 */
+	public static interface Recorder {
+
+		/**
+		 * Called after a date has been selected in a calendar component.
+		 *
+		 * @param source        the calendar component
+		 * @param durationNanos the duration of the selection in nanoseconds
+		 * @param cellsRestyled the number of day cells that were updated
+		 */
+		public default void selectDate(JComponent source, long durationNanos, int cellsRestyled) {
+		}
+
+		/**
+		 * Called after a component has painted itself.
+		 *
+		 * @param source        the painted component
+		 * @param durationNanos the duration of paintComponent in nanoseconds
+		 */
+		public default void paint(JComponent source, long durationNanos) {
+		}
+
+		/**
+		 * Called after a component has notified its listeners.
+		 *
+		 * @param source        the component that notified its listeners
+		 * @param durationNanos the duration of the dispatch in nanoseconds
+		 * @param listenerCount the number of notified listeners
+		 */
+		public default void listenerDispatch(JComponent source, long durationNanos, int listenerCount) {
+		}
+
+		/**
+		 * Called on every tick of the {@link JTickScheduler}.
+		 *
+		 * @param lagNanos        the delay of the tick after the wall-clock second
+		 *                        boundary in nanoseconds
+		 * @param subscriberCount the number of notified subscribers
+		 */
+		public default void tickLag(long lagNanos, int subscriberCount) {
+		}
+
+	}
+
+}
@@ -0,0 +1,307 @@
+package kaba4cow.jdtm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.time.temporal.WeekFields;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The day names, month names, ordinal day numbers and first day of the week of
+ * a {@link Locale}. The tables of a locale are built once with
+ * {@link #get(Locale)} and shared, so painting and formatting only read
+ * precomputed arrays. Instances are immutable and can be shared between
+ * threads.
+ */
+public final class JDateTimeNames {
+
+	private static final ConcurrentHashMap<Locale, JDateTimeNames> registry = new ConcurrentHashMap<>();
+
+	private final Locale locale;
+	private final String[] dayNames;
+	private final String[] fullDayNames;
+	private final String[] monthNames;
+	private final String[] standaloneMonthNames;
+	private final String[] ordinalDays;
+	private final int firstDayOfWeek;
+	private final boolean monthFirst;
+
+	private volatile TitleCache titleCache;
+
+	private JDateTimeNames(Locale locale) {
+		this.locale = locale;
+		int days = JDateTimeUtils.getNumberOfDays();
+		dayNames = new String[days];
+		fullDayNames = new String[days];
+		for (int i = 0; i < days; i++) {
+			DayOfWeek day = DayOfWeek.of(i + 1);
+			dayNames[i] = getDisplayName(day.getDisplayName(TextStyle.SHORT_STANDALONE, locale),
+					day.getDisplayName(TextStyle.SHORT, locale));
+			fullDayNames[i] = getDisplayName(day.getDisplayName(TextStyle.FULL_STANDALONE, locale),
+					day.getDisplayName(TextStyle.FULL, locale));
+		}
+		monthNames = new String[12];
+		standaloneMonthNames = new String[12];
+		for (int i = 0; i < 12; i++) {
+			Month month = Month.of(i + 1);
+			monthNames[i] = month.getDisplayName(TextStyle.FULL, locale);
+			standaloneMonthNames[i] = getDisplayName(month.getDisplayName(TextStyle.FULL_STANDALONE, locale),
+					monthNames[i]);
+		}
+		ordinalDays = new String[32];
+		String language = locale.getLanguage();
+		for (int i = 1; i < ordinalDays.length; i++)
+			ordinalDays[i] = getOrdinal(language, i);
+		firstDayOfWeek = WeekFields.of(locale).getFirstDayOfWeek().getValue() - 1;
+		monthFirst = language.equals("en") || language.isEmpty();
+	}
+
+	/**
+	 * Gets the shared names of a locale, building them on first use.
+	 *
+	 * @param locale the locale
+	 * @return the shared names
+	 */
+	public static JDateTimeNames get(Locale locale) {
+		JDateTimeNames names = registry.get(locale);
+		if (names == null)
+			names = registry.computeIfAbsent(locale, JDateTimeNames::new);
+		return names;
+	}
+
+	private static String getDisplayName(String standalone, String format) {
+		return standalone.isEmpty() || Character.isDigit(standalone.charAt(0)) ? format : standalone;
+	}
+
+	private static String getOrdinal(String language, int day) {
+		switch (language) {
+		case "":
+		case "en":
+			int suffix = day >= 11 && day <= 13 ? 0 : day % 10;
+			return day + (suffix == 1 ? "st" : suffix == 2 ? "nd" : suffix == 3 ? "rd" : "th");
+		case "fr":
+			return day == 1 ? "1er" : Integer.toString(day);
+		case "cs":
+		case "da":
+		case "de":
+		case "et":
+		case "fi":
+		case "hr":
+		case "hu":
+		case "lv":
+		case "nb":
+		case "nn":
+		case "no":
+		case "pl":
+		case "sk":
+		case "sl":
+		case "sr":
+			return day + ".";
+		default:
+			return Integer.toString(day);
+		}
+	}
+
+	/**
+	 * Gets the locale of these names.
+	 *
+	 * @return the locale
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Gets the abbreviated name of a day of week.
+	 *
+	 * @param index the index of the day (0 = Mon, 1 = Tue, ..., 6 = Sun)
+	 * @return the abbreviated day name
+	 */
+	public String getDayName(int index) {
+		return dayNames[index];
+	}
+
+	/**
+	 * Gets the full name of a day of week.
+	 *
+	 * @param index the index of the day (0 = Mon, 1 = Tue, ..., 6 = Sun)
+	 * @return the full day name
+	 */
+	public String getFullDayName(int index) {
+		return fullDayNames[index];
+	}
+
+	/**
+	 * Gets the full name of a month as used in a date.
+	 *
+	 * @param index the index of the month (0 = January, 1 = February, ..., 11 =
+	 *              December)
+	 * @return the full month name
+	 */
+	public String getMonthName(int index) {
+		return monthNames[index];
+	}
+
+	/**
+	 * Gets the full name of a month as used on its own, such as in a calendar
+	 * title.
+	 *
+	 * @param index the index of the month (0 = January, 1 = February, ..., 11 =
+	 *              December)
+	 * @return the full month name
+	 */
+	public String getStandaloneMonthName(int index) {
+		return standaloneMonthNames[index];
+	}
+
+	/**
+	 * Gets the ordinal form of a day of month, such as "1st" in English or "1." in
+	 * German.
+	 *
+	 * @param dayOfMonth the day of month (1 - 31)
+	 * @return the ordinal day of month
+	 */
+	public String getOrdinalDay(int dayOfMonth) {
+		return ordinalDays[dayOfMonth];
+	}
+
+	/**
+	 * Gets the first day of the week.
+	 *
+	 * @return the first day of the week
+	 */
+	public DayOfWeek getFirstDayOfWeek() {
+		return DayOfWeek.of(firstDayOfWeek + 1);
+	}
+
+	/**
+	 * Gets the index of the first day of the week.
+	 *
+	 * @return the index of the first day (0 = Mon, 1 = Tue, ..., 6 = Sun)
+	 */
+	public int getFirstDayIndex() {
+		return firstDayOfWeek;
+	}
+
+	/**
+	 * Gets the abbreviated name of the day of week displayed in a column of a
+	 * calendar that starts the week on the first day of the week.
+	 *
+	 * @param column the column (0 - 6)
+	 * @return the abbreviated day name
+	 */
+	public String getColumnDayName(int column) {
+		int index = firstDayOfWeek + column;
+		return dayNames[index >= dayNames.length ? index - dayNames.length : index];
+	}
+
+	/**
+	 * Gets the column of an epoch day in a calendar that starts the week on the
+	 * first day of the week.
+	 *
+	 * @param epochDay the epoch day
+	 * @return the column (0 - 6)
+	 */
+	public int getColumn(long epochDay) {
+		int column = JCalendarMonthGrid.getDayOfWeek(epochDay) - firstDayOfWeek;
+		return column < 0 ? column + dayNames.length : column;
+	}
+
+	/**
+	 * Formats a LocalDateTime object as a title time string. The string is cached
+	 * and shared while the time stays within the same second.
+	 *
+	 * @param time the LocalDateTime object to format
+	 * @return the formatted title time string
+	 */
+	public String formatTitleTime(LocalDateTime time) {
+		long key = time.toLocalDate().toEpochDay() * 86400L + time.toLocalTime().toSecondOfDay();
+		TitleCache cache = titleCache;
+		if (cache == null || cache.key != key) {
+			cache = new TitleCache(key, appendTitleTime(new StringBuilder(32), time).toString());
+			titleCache = cache;
+		}
+		return cache.text;
+	}
+
+	/**
+	 * Appends a LocalDateTime object formatted as a title time string.
+	 *
+	 * @param builder the StringBuilder to append to
+	 * @param time    the LocalDateTime object to format
+	 * @return the specified StringBuilder
+	 */
+	public StringBuilder appendTitleTime(StringBuilder builder, LocalDateTime time) {
+		try {
+			appendTitleTime((Appendable) builder, time);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return builder;
+	}
+
+	/**
+	 * Appends a LocalDateTime object formatted as a title time string.
+	 *
+	 * @param appendable the Appendable to append to
+	 * @param time       the LocalDateTime object to format
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void appendTitleTime(Appendable appendable, LocalDateTime time) throws IOException {
+		if (monthFirst)
+			appendable.append(monthNames[time.getMonthValue() - 1]).append(' ')
+					.append(ordinalDays[time.getDayOfMonth()]);
+		else
+			appendable.append(ordinalDays[time.getDayOfMonth()]).append(' ')
+					.append(monthNames[time.getMonthValue() - 1]);
+		appendable.append(' ');
+		JDateTimeUtils.appendYear(appendable, time.getYear());
+		appendable.append(" - ");
+		JDateTimeUtils.appendTime(appendable, time.toLocalTime());
+		appendable.append(':').append(JDateTimeUtils.getTwoDigits(time.getSecond()));
+	}
+
+	/**
+	 * Formats a LocalDate object as a month-year date string.
+	 *
+	 * @param date the LocalDate object to format
+	 * @return the formatted month-year date string
+	 */
+	public String formatMonthYearDate(LocalDate date) {
+		return appendMonthYearDate(new StringBuilder(16), date).toString();
+	}
+
+	/**
+	 * Appends a LocalDate object formatted as a month-year date string.
+	 *
+	 * @param builder the StringBuilder to append to
+	 * @param date    the LocalDate object to format
+	 * @return the specified StringBuilder
+	 */
+	public StringBuilder appendMonthYearDate(StringBuilder builder, LocalDate date) {
+		return builder.append(standaloneMonthNames[date.getMonthValue() - 1]).append(' ').append(date.getYear());
+	}
+
+	@Override
+	public String toString() {
+		return "JDateTimeNames[" + locale + "]";
+	}
+
+	private static final class TitleCache {
+
+		private final long key;
+		private final String text;
+
+		private TitleCache(long key, String text) {
+			this.key = key;
+			this.text = text;
+		}
+
+	}
+
+}
@@ -0,0 +1,116 @@
+package kaba4cow.jdtm;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A bounded cache of the text of dates and times formatted by
+ * {@link JDateTimeUtils}, keyed by epoch day, second of day or both. The cache
+ * is direct-mapped: every key has a single slot that is overwritten by the last
+ * key formatted there, so lookups do not allocate and the memory is fixed.
+ * Instances are not thread-safe and are used on the Event Dispatch Thread.
+ */
+final class JDateTimeTextCache {
+
+	private final int form;
+	private final long[] keys;
+	private final String[] texts;
+	private final int shift;
+
+	private final StringBuilder builder;
+
+	/**
+	 * Constructs a new cache.
+	 *
+	 * @param form     the parts to format, one of JDateTimeField.DATE,
+	 *                 JDateTimeField.TIME, or JDateTimeField.DATE_TIME
+	 * @param capacity the number of cached texts, rounded up to a power of two
+	 * @throws IllegalArgumentException if the form is not valid or the capacity
+	 *                                  is less than 1 or greater than 2^20
+	 */
+	JDateTimeTextCache(int form, int capacity) {
+		if (form != JDateTimeField.DATE && form != JDateTimeField.TIME && form != JDateTimeField.DATE_TIME)
+			throw new IllegalArgumentException("Form must be DATE, TIME or DATE_TIME");
+		if (capacity < 1 || capacity > 1 << 20)
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^20");
+		int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(capacity - 1));
+		this.form = form;
+		this.keys = new long[1 << bits];
+		this.texts = new String[1 << bits];
+		this.shift = 64 - bits;
+		this.builder = new StringBuilder(16);
+	}
+
+	/**
+	 * Gets the parts formatted by this cache.
+	 *
+	 * @return the form
+	 */
+	int getForm() {
+		return form;
+	}
+
+	/**
+	 * Gets the number of cached texts.
+	 *
+	 * @return the capacity
+	 */
+	int getCapacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Gets the text of a LocalDate, LocalTime or LocalDateTime value. Parts that
+	 * are not formatted are ignored, and a LocalDate is formatted at midnight.
+	 *
+	 * @param value the value
+	 * @return the text, or null if the value is not a date or time
+	 */
+	String getText(Object value) {
+		if (value instanceof LocalDate)
+			return getText(((LocalDate) value).toEpochDay(), 0);
+		if (value instanceof LocalDateTime) {
+			LocalDateTime dateTime = (LocalDateTime) value;
+			return getText(dateTime.toLocalDate().toEpochDay(), dateTime.toLocalTime().toSecondOfDay());
+		}
+		if (value instanceof LocalTime)
+			return form == JDateTimeField.TIME ? getText(0L, ((LocalTime) value).toSecondOfDay()) : null;
+		return null;
+	}
+
+	/**
+	 * Gets the text of an epoch day and a second of day. Parts that are not
+	 * formatted are ignored.
+	 *
+	 * @param epochDay    the epoch day
+	 * @param secondOfDay the second of day
+	 * @return the text
+	 */
+	String getText(long epochDay, int secondOfDay) {
+		int minuteOfDay = secondOfDay / 60;
+		long key;
+		if (form == JDateTimeField.DATE)
+			key = epochDay;
+		else if (form == JDateTimeField.TIME)
+			key = minuteOfDay;
+		else
+			key = epochDay * 1440L + minuteOfDay;
+		int slot = (int) (key * 0x9E3779B97F4A7C15L >>> shift);
+		String text = texts[slot];
+		if (text != null && keys[slot] == key)
+			return text;
+		builder.setLength(0);
+		if (form != JDateTimeField.TIME)
+			JDateTimeUtils.appendDate(builder, LocalDate.ofEpochDay(epochDay));
+		if (form == JDateTimeField.DATE_TIME)
+			builder.append(' ');
+		if (form != JDateTimeField.DATE)
+			JDateTimeUtils.appendTime(builder, LocalTime.ofSecondOfDay(60 * minuteOfDay));
+		text = builder.toString();
+		keys[slot] = key;
+		texts[slot] = text;
+		return text;
+	}
+
+}
@@ -1,23 +1,48 @@
 package kaba4cow.jdtm;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 
 /**
- * Utility class for working with date and time formatting.
+ * Utility class for working with date and time formatting and parsing. Names
+ * are always English; use {@link JDateTimeNames} for the names of other
+ * locales.
  */
 public final class JDateTimeUtils {
 
-	private static final String[] suffixes = { "th", "st", "nd", "rd", "th", "th", "th", "th", "th", "th" };
+	/**
+     * The value returned by the parse methods for input that is not a valid date
+     * or time. It is neither a valid epoch day of the parsed range nor a valid
+     * second of day.
+     */
+	public static final int PARSE_ERROR = Integer.MIN_VALUE;
+
+	/**
+     * The number of characters of a date in the format dd.MM.yyyy.
+     */
+	public static final int DATE_LENGTH = 10;
+
+	/**
+     * The number of characters of a time in the format HH:mm.
+     */
+	public static final int TIME_LENGTH = 5;
+
+	private static final int daysBeforeEpoch = 719528;
+
 	private static final String[] dayNames = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
 	private static final String[] monthNames = { "January", "February", "March", "April", "May", "June", "July",
 			"August", "September", "October", "November", "December" };
 
-	private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-	private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-	private static final DateTimeFormatter titleFormatter = DateTimeFormatter.ofPattern("yyyy - HH:mm:ss");
+	private static final String[] twoDigits = new String[100];
+	static {
+		for (int i = 0; i < twoDigits.length; i++)
+			twoDigits[i] = (i < 10 ? "0" : "") + i;
+	}
 
 	private static final int numberOfDays = 7;
 	private static final int numberOfWeeks = 6;
@@ -46,25 +71,37 @@ public final class JDateTimeUtils {
 	}
 
 	/**
-     * Formats a LocalDateTime object as a title time string.
+     * Formats a LocalDateTime object as a title time string. The string is cached
+     * by the English {@link JDateTimeNames} and shared while the time stays within
+     * the same second.
      *
      * @param time the LocalDateTime object to format
      * @return the formatted title time string
      */
 	public static String formatTitleTime(LocalDateTime time) {
-		String suffix;
-		int dayOfMonth = time.getDayOfMonth();
-		switch (dayOfMonth) {
-		case 11:
-		case 12:
-		case 13:
-			suffix = "th";
-			break;
-		default:
-			suffix = suffixes[dayOfMonth % 10];
-		}
-		return String.format("%s %d%s %s", getMonthName(time.getMonthValue() - 1), dayOfMonth, suffix,
-				time.format(titleFormatter));
+		return JDateTimeNames.get(Locale.ENGLISH).formatTitleTime(time);
+	}
+
+	/**
+     * Appends a LocalDateTime object formatted as a title time string.
+     *
+     * @param builder the StringBuilder to append to
+     * @param time    the LocalDateTime object to format
+     * @return the specified StringBuilder
+     */
+	public static StringBuilder appendTitleTime(StringBuilder builder, LocalDateTime time) {
+		return JDateTimeNames.get(Locale.ENGLISH).appendTitleTime(builder, time);
+	}
+
+	/**
+     * Appends a LocalDateTime object formatted as a title time string.
+     *
+     * @param appendable the Appendable to append to
+     * @param time       the LocalDateTime object to format
+     * @throws IOException if an I/O error occurs
+     */
+	public static void appendTitleTime(Appendable appendable, LocalDateTime time) throws IOException {
+		JDateTimeNames.get(Locale.ENGLISH).appendTitleTime(appendable, time);
 	}
 
 	/**
@@ -74,7 +111,34 @@ public final class JDateTimeUtils {
      * @return the formatted month-year date string
      */
 	public static String formatMonthYearDate(LocalDate date) {
-		return String.format("%s %d", getMonthName(date.getMonthValue() - 1), date.getYear());
+		return appendMonthYearDate(new StringBuilder(16), date).toString();
+	}
+
+	/**
+     * Appends a LocalDate object formatted as a month-year date string.
+     *
+     * @param builder the StringBuilder to append to
+     * @param date    the LocalDate object to format
+     * @return the specified StringBuilder
+     */
+	public static StringBuilder appendMonthYearDate(StringBuilder builder, LocalDate date) {
+		return builder.append(getMonthName(date.getMonthValue() - 1)).append(' ').append(date.getYear());
+	}
+
+	/**
+     * Appends a LocalDate object formatted as a month-year date string.
+     *
+     * @param appendable the Appendable to append to
+     * @param date       the LocalDate object to format
+     * @throws IOException if an I/O error occurs
+     */
+	public static void appendMonthYearDate(Appendable appendable, LocalDate date) throws IOException {
+		appendable.append(getMonthName(date.getMonthValue() - 1)).append(' ');
+		int year = date.getYear();
+		if (year >= 1000 && year <= 9999)
+			appendYear(appendable, year);
+		else
+			appendable.append(Integer.toString(year));
 	}
 
 	/**
@@ -84,7 +148,36 @@ public final class JDateTimeUtils {
      * @return the formatted date string
      */
 	public static String formatDate(LocalDate date) {
-		return date.format(dateFormatter);
+		return appendDate(new StringBuilder(10), date).toString();
+	}
+
+	/**
+     * Appends a LocalDate object formatted as a date string.
+     *
+     * @param builder the StringBuilder to append to
+     * @param date    the LocalDate object to format
+     * @return the specified StringBuilder
+     */
+	public static StringBuilder appendDate(StringBuilder builder, LocalDate date) {
+		try {
+			appendDate((Appendable) builder, date);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return builder;
+	}
+
+	/**
+     * Appends a LocalDate object formatted as a date string.
+     *
+     * @param appendable the Appendable to append to
+     * @param date       the LocalDate object to format
+     * @throws IOException if an I/O error occurs
+     */
+	public static void appendDate(Appendable appendable, LocalDate date) throws IOException {
+		appendable.append(twoDigits[date.getDayOfMonth()]).append('.');
+		appendable.append(twoDigits[date.getMonthValue()]).append('.');
+		appendYear(appendable, date.getYear());
 	}
 
 	/**
@@ -94,7 +187,277 @@ public final class JDateTimeUtils {
      * @return the formatted time string
      */
 	public static String formatTime(LocalTime time) {
-		return time.format(timeFormatter);
+		return appendTime(new StringBuilder(5), time).toString();
+	}
+
+	/**
+     * Appends a LocalTime object formatted as a time string.
+     *
+     * @param builder the StringBuilder to append to
+     * @param time    the LocalTime object to format
+     * @return the specified StringBuilder
+     */
+	public static StringBuilder appendTime(StringBuilder builder, LocalTime time) {
+		return builder.append(twoDigits[time.getHour()]).append(':').append(twoDigits[time.getMinute()]);
+	}
+
+	/**
+     * Appends a LocalTime object formatted as a time string.
+     *
+     * @param appendable the Appendable to append to
+     * @param time       the LocalTime object to format
+     * @throws IOException if an I/O error occurs
+     */
+	public static void appendTime(Appendable appendable, LocalTime time) throws IOException {
+		appendable.append(twoDigits[time.getHour()]).append(':').append(twoDigits[time.getMinute()]);
+	}
+
+	/**
+     * Parses a date in the format dd.MM.yyyy at an offset.
+     *
+     * @param text   the text to parse
+     * @param offset the offset of the first character
+     * @return the epoch day, or PARSE_ERROR if the input is not a valid date
+     */
+	public static int parseDate(CharSequence text, int offset) {
+		if (offset < 0 || offset > text.length() - DATE_LENGTH || text.charAt(offset + 2) != '.'
+				|| text.charAt(offset + 5) != '.')
+			return PARSE_ERROR;
+		int day = parseDigits(text.charAt(offset), text.charAt(offset + 1));
+		int month = parseDigits(text.charAt(offset + 3), text.charAt(offset + 4));
+		int century = parseDigits(text.charAt(offset + 6), text.charAt(offset + 7));
+		int yearOfCentury = parseDigits(text.charAt(offset + 8), text.charAt(offset + 9));
+		return toEpochDay(century, yearOfCentury, month, day);
+	}
+
+	/**
+     * Parses a time in the format HH:mm at an offset.
+     *
+     * @param text   the text to parse
+     * @param offset the offset of the first character
+     * @return the second of day, or PARSE_ERROR if the input is not a valid time
+     */
+	public static int parseTime(CharSequence text, int offset) {
+		if (offset < 0 || offset > text.length() - TIME_LENGTH || text.charAt(offset + 2) != ':')
+			return PARSE_ERROR;
+		int hour = parseDigits(text.charAt(offset), text.charAt(offset + 1));
+		int minute = parseDigits(text.charAt(offset + 3), text.charAt(offset + 4));
+		return toSecondOfDay(hour, minute);
+	}
+
+	/**
+     * Parses a date in the format dd.MM.yyyy at an offset.
+     *
+     * @param chars  the characters to parse
+     * @param offset the offset of the first character
+     * @return the epoch day, or PARSE_ERROR if the input is not a valid date
+     */
+	public static int parseDate(char[] chars, int offset) {
+		if (offset < 0 || offset > chars.length - DATE_LENGTH || chars[offset + 2] != '.'
+				|| chars[offset + 5] != '.')
+			return PARSE_ERROR;
+		int day = parseDigits(chars[offset], chars[offset + 1]);
+		int month = parseDigits(chars[offset + 3], chars[offset + 4]);
+		int century = parseDigits(chars[offset + 6], chars[offset + 7]);
+		int yearOfCentury = parseDigits(chars[offset + 8], chars[offset + 9]);
+		return toEpochDay(century, yearOfCentury, month, day);
+	}
+
+	/**
+     * Parses a time in the format HH:mm at an offset.
+     *
+     * @param chars  the characters to parse
+     * @param offset the offset of the first character
+     * @return the second of day, or PARSE_ERROR if the input is not a valid time
+     */
+	public static int parseTime(char[] chars, int offset) {
+		if (offset < 0 || offset > chars.length - TIME_LENGTH || chars[offset + 2] != ':')
+			return PARSE_ERROR;
+		int hour = parseDigits(chars[offset], chars[offset + 1]);
+		int minute = parseDigits(chars[offset + 3], chars[offset + 4]);
+		return toSecondOfDay(hour, minute);
+	}
+
+	/**
+     * Parses a date in the format dd.MM.yyyy at an offset.
+     *
+     * @param buffer the buffer to parse, read as ASCII bytes without
+     *               changing its position
+     * @param offset the offset of the first character
+     * @return the epoch day, or PARSE_ERROR if the input is not a valid date
+     */
+	public static int parseDate(ByteBuffer buffer, int offset) {
+		if (offset < 0 || offset > buffer.limit() - DATE_LENGTH || buffer.get(offset + 2) != '.'
+				|| buffer.get(offset + 5) != '.')
+			return PARSE_ERROR;
+		int day = parseDigits(buffer.get(offset), buffer.get(offset + 1));
+		int month = parseDigits(buffer.get(offset + 3), buffer.get(offset + 4));
+		int century = parseDigits(buffer.get(offset + 6), buffer.get(offset + 7));
+		int yearOfCentury = parseDigits(buffer.get(offset + 8), buffer.get(offset + 9));
+		return toEpochDay(century, yearOfCentury, month, day);
+	}
+
+	/**
+     * Parses a time in the format HH:mm at an offset.
+     *
+     * @param buffer the buffer to parse, read as ASCII bytes without
+     *               changing its position
+     * @param offset the offset of the first character
+     * @return the second of day, or PARSE_ERROR if the input is not a valid time
+     */
+	public static int parseTime(ByteBuffer buffer, int offset) {
+		if (offset < 0 || offset > buffer.limit() - TIME_LENGTH || buffer.get(offset + 2) != ':')
+			return PARSE_ERROR;
+		int hour = parseDigits(buffer.get(offset), buffer.get(offset + 1));
+		int minute = parseDigits(buffer.get(offset + 3), buffer.get(offset + 4));
+		return toSecondOfDay(hour, minute);
+	}
+
+	/**
+     * Parses dates in the format dd.MM.yyyy at a number of offsets. Invalid
+     * dates are stored as PARSE_ERROR.
+     *
+     * @param text      the text to parse
+     * @param offsets   the offsets of the first characters
+     * @param epochDays the array that receives the epoch days
+     * @param count     the number of offsets to parse
+     * @return the number of invalid dates
+     */
+	public static int parseDates(CharSequence text, int[] offsets, int[] epochDays, int count) {
+		int invalid = 0;
+		for (int i = 0; i < count; i++)
+			if ((epochDays[i] = parseDate(text, offsets[i])) == PARSE_ERROR)
+				invalid++;
+		return invalid;
+	}
+
+	/**
+     * Parses times in the format HH:mm at a number of offsets. Invalid times are
+     * stored as PARSE_ERROR.
+     *
+     * @param text         the text to parse
+     * @param offsets      the offsets of the first characters
+     * @param secondsOfDay the array that receives the seconds of day
+     * @param count        the number of offsets to parse
+     * @return the number of invalid times
+     */
+	public static int parseTimes(CharSequence text, int[] offsets, int[] secondsOfDay, int count) {
+		int invalid = 0;
+		for (int i = 0; i < count; i++)
+			if ((secondsOfDay[i] = parseTime(text, offsets[i])) == PARSE_ERROR)
+				invalid++;
+		return invalid;
+	}
+
+	/**
+     * Parses dates in the format dd.MM.yyyy at a number of offsets. Invalid
+     * dates are stored as PARSE_ERROR.
+     *
+     * @param chars     the characters to parse
+     * @param offsets   the offsets of the first characters
+     * @param epochDays the array that receives the epoch days
+     * @param count     the number of offsets to parse
+     * @return the number of invalid dates
+     */
+	public static int parseDates(char[] chars, int[] offsets, int[] epochDays, int count) {
+		int invalid = 0;
+		for (int i = 0; i < count; i++)
+			if ((epochDays[i] = parseDate(chars, offsets[i])) == PARSE_ERROR)
+				invalid++;
+		return invalid;
+	}
+
+	/**
+     * Parses times in the format HH:mm at a number of offsets. Invalid times are
+     * stored as PARSE_ERROR.
+     *
+     * @param chars        the characters to parse
+     * @param offsets      the offsets of the first characters
+     * @param secondsOfDay the array that receives the seconds of day
+     * @param count        the number of offsets to parse
+     * @return the number of invalid times
+     */
+	public static int parseTimes(char[] chars, int[] offsets, int[] secondsOfDay, int count) {
+		int invalid = 0;
+		for (int i = 0; i < count; i++)
+			if ((secondsOfDay[i] = parseTime(chars, offsets[i])) == PARSE_ERROR)
+				invalid++;
+		return invalid;
+	}
+
+	/**
+     * Parses dates in the format dd.MM.yyyy at a number of offsets. Invalid
+     * dates are stored as PARSE_ERROR.
+     *
+     * @param buffer    the buffer to parse, read as ASCII bytes without
+     *                  changing its position
+     * @param offsets   the offsets of the first characters
+     * @param epochDays the array that receives the epoch days
+     * @param count     the number of offsets to parse
+     * @return the number of invalid dates
+     */
+	public static int parseDates(ByteBuffer buffer, int[] offsets, int[] epochDays, int count) {
+		int invalid = 0;
+		for (int i = 0; i < count; i++)
+			if ((epochDays[i] = parseDate(buffer, offsets[i])) == PARSE_ERROR)
+				invalid++;
+		return invalid;
+	}
+
+	/**
+     * Parses times in the format HH:mm at a number of offsets. Invalid times are
+     * stored as PARSE_ERROR.
+     *
+     * @param buffer       the buffer to parse, read as ASCII bytes without
+     *                     changing its position
+     * @param offsets      the offsets of the first characters
+     * @param secondsOfDay the array that receives the seconds of day
+     * @param count        the number of offsets to parse
+     * @return the number of invalid times
+     */
+	public static int parseTimes(ByteBuffer buffer, int[] offsets, int[] secondsOfDay, int count) {
+		int invalid = 0;
+		for (int i = 0; i < count; i++)
+			if ((secondsOfDay[i] = parseTime(buffer, offsets[i])) == PARSE_ERROR)
+				invalid++;
+		return invalid;
+	}
+
+	private static int parseDigits(int tens, int ones) {
+		tens -= '0';
+		ones -= '0';
+		return (tens | ones | 9 - tens | 9 - ones) < 0 ? -1 : 10 * tens + ones;
+	}
+
+	private static int toEpochDay(int century, int yearOfCentury, int month, int day) {
+		if ((century | yearOfCentury) < 0 || month < 1 || month > 12 || day < 1)
+			return PARSE_ERROR;
+		int year = 100 * century + yearOfCentury;
+		boolean leap = (year & 3) == 0 && (yearOfCentury != 0 || (century & 3) == 0);
+		if (day > (month == 2 ? (leap ? 29 : 28) : 30 + ((month + (month >> 3)) & 1)))
+			return PARSE_ERROR;
+		int total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400 + (367 * month - 362) / 12
+				+ day - 1;
+		if (month > 2)
+			total -= leap ? 1 : 2;
+		return total - daysBeforeEpoch;
+	}
+
+	private static int toSecondOfDay(int hour, int minute) {
+		if (hour < 0 || hour > 23 || minute < 0 || minute > 59)
+			return PARSE_ERROR;
+		return hour * 3600 + minute * 60;
+	}
+
+	static String getTwoDigits(int value) {
+		return twoDigits[value];
+	}
+
+	static void appendYear(Appendable appendable, int year) throws IOException {
+		if (year >= 0 && year <= 9999)
+			appendable.append(twoDigits[year / 100]).append(twoDigits[year % 100]);
+		else
+			appendable.append(year > 9999 ? "+" : "").append(Integer.toString(year));
 	}
 
 	/**
@@ -0,0 +1,252 @@
+package kaba4cow.jdtm;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Delivers the values of a component to its listeners. By default every value
+ * is delivered immediately on the Event Dispatch Thread. Bursts of values can
+ * be coalesced to the latest value, either after a quiet period or once per
+ * event-queue frame, and listeners can be notified asynchronously on an
+ * executor (for example a virtual thread executor) so that slow listeners do
+ * not block the Event Dispatch Thread. Listeners are held in a copy-on-write
+ * list and may be added or removed during dispatch.
+ *
+ * @param <L> the listener type
+ * @param <V> the value type
+ */
+public final class JListenerDelivery<L, V> {
+
+	private final JComponent source;
+	private final Notifier<L, V> notifier;
+	private final CopyOnWriteArrayList<L> listeners;
+
+	private final Timer quietTimer;
+	private final Runnable flushTask;
+	private final AtomicReference<V> asyncValue;
+	private final AtomicBoolean asyncDraining;
+	private final Runnable drainTask;
+
+	private Mode mode;
+	private Executor executor;
+
+	private V pendingValue;
+	private boolean flushScheduled;
+
+	JListenerDelivery(JComponent source, Notifier<L, V> notifier) {
+		this.source = source;
+		this.notifier = notifier;
+		this.listeners = new CopyOnWriteArrayList<>();
+		this.mode = Mode.IMMEDIATE;
+		this.executor = null;
+		this.quietTimer = new Timer(0, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				flush();
+			}
+		});
+		this.quietTimer.setRepeats(false);
+		this.flushTask = new Runnable() {
+			@Override
+			public void run() {
+				flush();
+			}
+		};
+		this.asyncValue = new AtomicReference<>();
+		this.asyncDraining = new AtomicBoolean(false);
+		this.drainTask = new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		};
+	}
+
+	/**
+	 * Adds a listener.
+	 *
+	 * @param listener the listener to add
+	 */
+	public void addListener(L listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener the listener to remove
+	 */
+	public void removeListener(L listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Checks whether any listeners are registered.
+	 *
+	 * @return true if at least one listener is registered
+	 */
+	public boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Sets the delivery mode. Pending values are delivered before the mode is
+	 * changed.
+	 *
+	 * @param mode              the delivery mode
+	 * @param quietPeriodMillis the quiet period in milliseconds, used only by
+	 *                          {@link Mode#DEBOUNCED}
+	 * @throws IllegalArgumentException if the quiet period is negative
+	 */
+	public void setMode(Mode mode, int quietPeriodMillis) {
+		if (quietPeriodMillis < 0)
+			throw new IllegalArgumentException("Quiet period must be >= 0");
+		flush();
+		this.mode = mode;
+		this.quietTimer.setInitialDelay(quietPeriodMillis);
+	}
+
+	/**
+	 * Gets the delivery mode.
+	 *
+	 * @return the delivery mode
+	 */
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Sets the executor that notifies the listeners. Values delivered
+	 * asynchronously are coalesced to the latest value while the listeners are
+	 * busy, and are delivered in order. If the executor rejects a delivery, the
+	 * listeners are notified on the calling thread instead.
+	 *
+	 * @param executor the executor, or null to notify the listeners on the Event
+	 *                 Dispatch Thread
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets the executor that notifies the listeners.
+	 *
+	 * @return the executor, or null if the listeners are notified on the Event
+	 *         Dispatch Thread
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	void fire(V value) {
+		if (listeners.isEmpty())
+			return;
+		switch (mode) {
+		case DEBOUNCED:
+			pendingValue = value;
+			quietTimer.restart();
+			break;
+		case FRAME_ALIGNED:
+			pendingValue = value;
+			if (!flushScheduled) {
+				flushScheduled = true;
+				SwingUtilities.invokeLater(flushTask);
+			}
+			break;
+		default:
+			dispatch(value);
+		}
+	}
+
+	private void flush() {
+		quietTimer.stop();
+		flushScheduled = false;
+		V value = pendingValue;
+		pendingValue = null;
+		if (value != null)
+			dispatch(value);
+	}
+
+	private void dispatch(V value) {
+		Executor executor = this.executor;
+		if (executor == null)
+			notifyListeners(value);
+		else {
+			asyncValue.set(value);
+			if (asyncDraining.compareAndSet(false, true))
+				try {
+					executor.execute(drainTask);
+				} catch (RejectedExecutionException exception) {
+					drain();
+				}
+		}
+	}
+
+	private void drain() {
+		do {
+			try {
+				V value;
+				while ((value = asyncValue.getAndSet(null)) != null)
+					notifyListeners(value);
+			} finally {
+				asyncDraining.set(false);
+			}
+		} while (asyncValue.get() != null && asyncDraining.compareAndSet(false, true));
+	}
+
+	private void notifyListeners(V value) {
+		long start = JDateTimeMetrics.start();
+		int count = 0;
+		for (L listener : listeners) {
+			notifier.deliver(listener, value);
+			count++;
+		}
+		JDateTimeMetrics.recordListenerDispatch(source, start, count);
+	}
+
+	/**
+	 * The delivery modes of a JListenerDelivery.
+	 */
+	public static enum Mode {
+
+		/**
+		 * Every value is delivered immediately.
+		 */
+		IMMEDIATE,
+
+		/**
+		 * A burst of values is coalesced and only the latest value is delivered once
+		 * no new value arrived for the quiet period.
+		 */
+		DEBOUNCED,
+
+		/**
+		 * Values are coalesced and the latest value is delivered once the events
+		 * currently in the event queue have been processed.
+		 */
+		FRAME_ALIGNED
+
+	}
+
+	/**
+	 * Notifies a single listener of a value.
+	 *
+	 * @param <L> the listener type
+	 * @param <V> the value type
+	 */
+	static interface Notifier<L, V> {
+
+		public void deliver(L listener, V value);
+
+	}
+
+}
@@ -0,0 +1,258 @@
+package kaba4cow.jdtm;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * A shared scheduler that notifies subscribed components once per wall-clock
+ * second, aligned to the second boundary. All components share a single Swing
+ * timer. Subscribers are only notified while their component is showing, and
+ * components that are removed from the hierarchy or disposed are dropped from
+ * the scheduler. The scheduler also provides the {@link JTimeSnapshot
+ * snapshots} of the current time shared by the components, read from an
+ * injectable {@link Clock}.
+ */
+public final class JTickScheduler {
+
+	private static final JTickScheduler instance = new JTickScheduler();
+
+	private final List<Subscription> activeSubscriptions;
+	private final Timer timer;
+	private final WeakHashMap<Clock, JTimeSnapshot> snapshots;
+
+	private Clock clock;
+	private int generation;
+	private boolean ticking;
+
+	private Subscription[] tickBuffer;
+	private long scheduledMillis;
+
+	private JTickScheduler() {
+		activeSubscriptions = new ArrayList<>();
+		snapshots = new WeakHashMap<>();
+		clock = Clock.systemDefaultZone();
+		generation = 0;
+		ticking = false;
+		tickBuffer = new Subscription[0];
+		timer = new Timer(0, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				tick();
+			}
+		});
+		timer.setRepeats(false);
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * Gets the shared scheduler instance.
+	 *
+	 * @return the shared scheduler
+	 */
+	public static JTickScheduler getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Sets the clock of the snapshots returned by getSnapshot() and used by
+	 * components that have no clock of their own, and notifies the showing
+	 * subscribers immediately. A fixed or offset clock makes the components
+	 * deterministic and allows to fast-forward time. Must be called on the Event
+	 * Dispatch Thread.
+	 *
+	 * @param clock the clock
+	 */
+	public void setClock(Clock clock) {
+		this.clock = Objects.requireNonNull(clock, "Clock must not be null");
+		fireTick();
+	}
+
+	/**
+	 * Gets the clock of the snapshots returned by getSnapshot().
+	 *
+	 * @return the clock
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Gets the shared snapshot of the current time of the scheduler clock.
+	 *
+	 * @return the snapshot
+	 * @see #getSnapshot(Clock)
+	 */
+	public JTimeSnapshot getSnapshot() {
+		return getSnapshot(clock);
+	}
+
+	/**
+	 * Gets the shared snapshot of the current time of a clock. During a tick all
+	 * subscribers receive the same snapshot; outside of a tick a snapshot is
+	 * reused while the clock stays within the same second. Must be called on the
+	 * Event Dispatch Thread.
+	 *
+	 * @param clock the clock, or null for the scheduler clock
+	 * @return the snapshot
+	 */
+	public JTimeSnapshot getSnapshot(Clock clock) {
+		if (clock == null)
+			clock = this.clock;
+		JTimeSnapshot snapshot = snapshots.get(clock);
+		if (snapshot != null && snapshot.generation == generation && ticking)
+			return snapshot;
+		long millis = clock.millis();
+		if (snapshot != null && !ticking && snapshot.isSameSecond(millis))
+			return snapshot;
+		snapshot = new JTimeSnapshot(millis, clock.getZone(), generation);
+		snapshots.put(clock, snapshot);
+		return snapshot;
+	}
+
+	/**
+	 * Notifies the showing subscribers immediately with a new snapshot, such as
+	 * after advancing a virtual clock. Must be called on the Event Dispatch
+	 * Thread.
+	 */
+	public void fireTick() {
+		int count = activeSubscriptions.size();
+		generation++;
+		if (count == 0)
+			return;
+		if (tickBuffer.length < count)
+			tickBuffer = new Subscription[count];
+		Subscription[] subscriptions = activeSubscriptions.toArray(tickBuffer);
+		ticking = true;
+		try {
+			for (int i = 0; i < count; i++) {
+				Subscription subscription = subscriptions[i];
+				subscriptions[i] = null;
+				if (subscription.active)
+					subscription.listener.onTick();
+			}
+		} finally {
+			ticking = false;
+		}
+	}
+
+	/**
+	 * Subscribes a listener that will be notified on every tick while the
+	 * specified component is showing. The listener is notified immediately when
+	 * the component becomes showing. Must be called on the Event Dispatch Thread.
+	 *
+	 * @param component the component that owns the listener
+	 * @param listener  the listener to notify
+	 */
+	public void subscribe(JComponent component, TickListener listener) {
+		Subscription subscription = new Subscription(component, listener);
+		component.addHierarchyListener(subscription);
+		if (component.isShowing())
+			activate(subscription);
+	}
+
+	/**
+	 * Unsubscribes a listener previously subscribed for the specified component.
+	 * Must be called on the Event Dispatch Thread.
+	 *
+	 * @param component the component that owns the listener
+	 * @param listener  the listener to remove
+	 */
+	public void unsubscribe(JComponent component, TickListener listener) {
+		for (HierarchyListener hierarchyListener : component.getHierarchyListeners())
+			if (hierarchyListener instanceof Subscription) {
+				Subscription subscription = (Subscription) hierarchyListener;
+				if (subscription.listener == listener) {
+					component.removeHierarchyListener(subscription);
+					deactivate(subscription);
+				}
+			}
+	}
+
+	private void activate(Subscription subscription) {
+		if (subscription.active)
+			return;
+		subscription.active = true;
+		activeSubscriptions.add(subscription);
+		subscription.listener.onTick();
+		if (!timer.isRunning())
+			schedule();
+	}
+
+	private void deactivate(Subscription subscription) {
+		if (!subscription.active)
+			return;
+		subscription.active = false;
+		activeSubscriptions.remove(subscription);
+		if (activeSubscriptions.isEmpty())
+			timer.stop();
+	}
+
+	private void schedule() {
+		long currentMillis = System.currentTimeMillis();
+		int delay = (int) (1000L - currentMillis % 1000L);
+		scheduledMillis = currentMillis + delay;
+		timer.setInitialDelay(delay);
+		timer.start();
+	}
+
+	private void tick() {
+		int count = activeSubscriptions.size();
+		if (count == 0)
+			return;
+		if (JDateTimeMetrics.isEnabled())
+			JDateTimeMetrics.recordTickLag((System.currentTimeMillis() - scheduledMillis) * 1000000L, count);
+		fireTick();
+		if (!activeSubscriptions.isEmpty())
+			schedule();
+	}
+
+	private final class Subscription implements HierarchyListener {
+
+		private final JComponent component;
+		private final TickListener listener;
+
+		private boolean active;
+
+		private Subscription(JComponent component, TickListener listener) {
+			this.component = component;
+			this.listener = listener;
+			this.active = false;
+		}
+
+		@Override
+		public void hierarchyChanged(HierarchyEvent event) {
+			if ((event.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) == 0)
+				return;
+			if (component.isShowing())
+				activate(this);
+			else
+				deactivate(this);
+		}
+
+	}
+
+	/**
+	 * Listener interface for receiving notifications on every tick of the
+	 * JTickScheduler.
+	 */
+	public static interface TickListener {
+
+		/**
+		 * Called once per wall-clock second while the associated component is
+		 * showing, and once when the component becomes showing.
+		 */
+		public void onTick();
+
+	}
+
+}
@@ -2,8 +2,6 @@ package kaba4cow.jdtm;
 
 import java.awt.GridLayout;
 import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.List;
 
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
@@ -24,7 +22,7 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	public static final int HOURS_MINUTES_SECONDS = 1;
 	public static final int MINUTES_SECONDS = 2;
 
-	private final List<TimeChooserListener> listeners;
+	private final JListenerDelivery<TimeChooserListener, LocalTime> delivery;
 
 	private final int form;
 
@@ -41,6 +39,8 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	private int minuteStepSize;
 	private int secondStepSize;
 
+	private int secondOfDay;
+
 	private boolean ignoreChangeEvent;
 
 	/**
@@ -55,9 +55,15 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 		this.hourStepSize = 1;
 		this.minuteStepSize = 1;
 		this.secondStepSize = 1;
+		this.secondOfDay = 12 * 3600;
 		this.ignoreChangeEvent = false;
 		setLayout(new GridLayout(1, 0));
-		listeners = new ArrayList<>();
+		delivery = new JListenerDelivery<>(this, new JListenerDelivery.Notifier<TimeChooserListener, LocalTime>() {
+			@Override
+			public void deliver(TimeChooserListener listener, LocalTime value) {
+				listener.onTimeChanged(JTimeChooser.this, value);
+			}
+		});
 
 		hourModel = new SpinnerNumberModel(12, -hourStepSize, 24, hourStepSize);
 		hourSpinner = new JSpinner(hourModel);
@@ -91,23 +97,40 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	 * @param listener The listener to add.
 	 */
 	public void addTimeChooserListener(TimeChooserListener listener) {
-		listeners.add(listener);
+		delivery.addListener(listener);
+	}
+
+	/**
+	 * Removes a listener previously added with addTimeChooserListener.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeTimeChooserListener(TimeChooserListener listener) {
+		delivery.removeListener(listener);
+	}
+
+	/**
+	 * Gets the delivery that notifies the listeners, which can be configured to
+	 * coalesce bursts of changes or to notify the listeners asynchronously.
+	 *
+	 * @return The listener delivery.
+	 */
+	public JListenerDelivery<TimeChooserListener, LocalTime> getListenerDelivery() {
+		return delivery;
 	}
 
 	private void fireTimeChanged() {
-		LocalTime newTime = getTime();
-		for (TimeChooserListener listener : listeners)
-			listener.onTimeChanged(this, newTime);
+		if (delivery.hasListeners())
+			delivery.fire(getTime());
 	}
 
 	@Override
 	public void stateChanged(ChangeEvent event) {
 		if (ignoreChangeEvent)
 			return;
-		ignoreChangeEvent = true;
-		Integer hour = (Integer) hourSpinner.getValue();
-		Integer minute = (Integer) minuteSpinner.getValue();
-		Integer second = (Integer) secondSpinner.getValue();
+		int hour = (Integer) hourModel.getValue();
+		int minute = (Integer) minuteModel.getValue();
+		int second = (Integer) secondModel.getValue();
 		if (second < 0) {
 			minute -= minuteStepSize;
 			second = 50;
@@ -126,34 +149,62 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 			hour = 23;
 		else if (hour > 23)
 			hour = 0;
-		setHour(hour);
-		setMinute(minute);
-		setSecond(second);
-		fireTimeChanged();
-		ignoreChangeEvent = false;
+		if (applyTime(hour, minute, second))
+			fireTimeChanged();
 	}
 
-	private void setHour(int hour) {
-		hourSpinner.setValue(hour - hour % hourStepSize);
+	/**
+	 * Applies a time to the model and the spinners in a single transaction. The
+	 * values are rounded down to the step sizes, and each spinner is updated at
+	 * most once without triggering further change handling.
+	 *
+	 * @return true if the time has changed
+	 */
+	private boolean applyTime(int hour, int minute, int second) {
+		hour -= hour % hourStepSize;
+		minute -= minute % minuteStepSize;
+		second -= second % secondStepSize;
+		boolean ignoreChangeEvent = this.ignoreChangeEvent;
+		this.ignoreChangeEvent = true;
+		setModelValue(hourModel, hour);
+		setModelValue(minuteModel, minute);
+		setModelValue(secondModel, second);
+		this.ignoreChangeEvent = ignoreChangeEvent;
+		int newSecondOfDay = (hour * 60 + minute) * 60 + second;
+		boolean changed = newSecondOfDay != secondOfDay;
+		secondOfDay = newSecondOfDay;
+		return changed;
 	}
 
-	private void setMinute(int minute) {
-		minuteSpinner.setValue(minute - minute % minuteStepSize);
+	private static void setModelValue(SpinnerNumberModel model, int value) {
+		if ((Integer) model.getValue() != value)
+			model.setValue(value);
 	}
 
-	private void setSecond(int second) {
-		secondSpinner.setValue(second - second % secondStepSize);
+	private boolean applyStepSizes(int hourStepSize, int minuteStepSize, int secondStepSize) {
+		boolean ignoreChangeEvent = this.ignoreChangeEvent;
+		this.ignoreChangeEvent = true;
+		this.hourStepSize = hourStepSize;
+		this.hourModel.setMinimum(-hourStepSize);
+		this.hourModel.setStepSize(hourStepSize);
+		this.minuteStepSize = minuteStepSize;
+		this.minuteModel.setMinimum(-minuteStepSize);
+		this.minuteModel.setStepSize(minuteStepSize);
+		this.secondStepSize = secondStepSize;
+		this.secondModel.setMinimum(-secondStepSize);
+		this.secondModel.setStepSize(secondStepSize);
+		this.ignoreChangeEvent = ignoreChangeEvent;
+		return applyTime(secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60);
 	}
 
 	/**
-	 * Sets the current time of the time chooser.
+	 * Sets the current time of the time chooser. The listeners are notified
+	 * exactly once.
 	 *
 	 * @param time The new time to set.
 	 */
 	public void setTime(LocalTime time) {
-		setSecond(time.getSecond());
-		setMinute(time.getMinute());
-		setHour(time.getHour());
+		applyTime(time.getHour(), time.getMinute(), time.getSecond());
 		fireTimeChanged();
 	}
 
@@ -163,10 +214,21 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	 * @return The current selected time.
 	 */
 	public LocalTime getTime() {
-		int hour = (form == HOURS_MINUTES || form == HOURS_MINUTES_SECONDS) ? (int) hourSpinner.getValue() : 0;
-		int minute = (int) minuteSpinner.getValue();
-		int second = (form == HOURS_MINUTES_SECONDS || form == MINUTES_SECONDS) ? (int) secondSpinner.getValue() : 0;
-		return LocalTime.of(hour, minute, second);
+		return LocalTime.ofSecondOfDay(getSecondOfDay());
+	}
+
+	/**
+	 * Gets the current selected time from the time chooser as the number of
+	 * seconds since midnight. Time units not displayed by the time chooser are
+	 * zero.
+	 *
+	 * @return The current selected second of day.
+	 */
+	public int getSecondOfDay() {
+		int hour = (form == HOURS_MINUTES || form == HOURS_MINUTES_SECONDS) ? secondOfDay / 3600 : 0;
+		int minute = secondOfDay / 60 % 60;
+		int second = (form == HOURS_MINUTES_SECONDS || form == MINUTES_SECONDS) ? secondOfDay % 60 : 0;
+		return (hour * 60 + minute) * 60 + second;
 	}
 
 	/**
@@ -177,14 +239,9 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	 *                                  or greater than 24.
 	 */
 	public void setHourStepSize(int hourStepSize) {
-		if (hourStepSize <= 0)
-			throw new IllegalArgumentException("Hour step size must be > 0");
-		if (hourStepSize > 24)
-			throw new IllegalArgumentException("Hour step size must be <= 24");
-		this.hourStepSize = hourStepSize;
-		this.hourModel.setMinimum(-hourStepSize);
-		this.hourModel.setStepSize(hourStepSize);
-		setHour((int) hourSpinner.getValue());
+		checkHourStepSize(hourStepSize);
+		if (applyStepSizes(hourStepSize, minuteStepSize, secondStepSize))
+			fireTimeChanged();
 	}
 
 	/**
@@ -195,14 +252,9 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	 *                                  or greater than 60.
 	 */
 	public void setMinuteStepSize(int minuteStepSize) {
-		if (minuteStepSize <= 0)
-			throw new IllegalArgumentException("Minute step size must be > 0");
-		if (minuteStepSize > 60)
-			throw new IllegalArgumentException("Minute step size must be <= 60");
-		this.minuteStepSize = minuteStepSize;
-		this.minuteModel.setMinimum(-minuteStepSize);
-		this.minuteModel.setStepSize(minuteStepSize);
-		setMinute((int) minuteSpinner.getValue());
+		checkMinuteStepSize(minuteStepSize);
+		if (applyStepSizes(hourStepSize, minuteStepSize, secondStepSize))
+			fireTimeChanged();
 	}
 
 	/**
@@ -213,14 +265,30 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	 *                                  or greater than 60.
 	 */
 	public void setSecondStepSize(int secondStepSize) {
+		checkSecondStepSize(secondStepSize);
+		if (applyStepSizes(hourStepSize, minuteStepSize, secondStepSize))
+			fireTimeChanged();
+	}
+
+	private static void checkHourStepSize(int hourStepSize) {
+		if (hourStepSize <= 0)
+			throw new IllegalArgumentException("Hour step size must be > 0");
+		if (hourStepSize > 24)
+			throw new IllegalArgumentException("Hour step size must be <= 24");
+	}
+
+	private static void checkMinuteStepSize(int minuteStepSize) {
+		if (minuteStepSize <= 0)
+			throw new IllegalArgumentException("Minute step size must be > 0");
+		if (minuteStepSize > 60)
+			throw new IllegalArgumentException("Minute step size must be <= 60");
+	}
+
+	private static void checkSecondStepSize(int secondStepSize) {
 		if (secondStepSize <= 0)
 			throw new IllegalArgumentException("Second step size must be > 0");
 		if (secondStepSize > 60)
 			throw new IllegalArgumentException("Second step size must be <= 60");
-		this.secondStepSize = secondStepSize;
-		this.secondModel.setMinimum(-secondStepSize);
-		this.secondModel.setStepSize(secondStepSize);
-		setSecond((int) secondSpinner.getValue());
 	}
 
 	/**
@@ -236,9 +304,11 @@ public class JTimeChooser extends JPanel implements ChangeListener {
 	 *                                  equal to 0 or greater than 60
 	 */
 	public void setStepSizes(int hourStepSize, int minuteStepSize, int secondStepSize) {
-		setHourStepSize(hourStepSize);
-		setMinuteStepSize(minuteStepSize);
-		setSecondStepSize(secondStepSize);
+		checkHourStepSize(hourStepSize);
+		checkMinuteStepSize(minuteStepSize);
+		checkSecondStepSize(secondStepSize);
+		if (applyStepSizes(hourStepSize, minuteStepSize, secondStepSize))
+			fireTimeChanged();
 	}
 
 	/**
@@ -0,0 +1,150 @@
+package kaba4cow.jdtm;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * An immutable reading of a {@link Clock}, with the date and time already
+ * resolved in the zone of the clock. Snapshots are obtained from
+ * {@link JTickScheduler#getSnapshot(Clock)}, which shares one snapshot per clock
+ * between all components during a tick and within the same second, so the
+ * components agree on the current date and the zone rules are looked up once.
+ * The same instant can be converted to other zones, such as for a wall of
+ * world clocks, through offsets cached until the next transition of the zone.
+ */
+public final class JTimeSnapshot {
+
+	private final long epochMilli;
+	private final ZoneId zone;
+	private final LocalDateTime dateTime;
+	private final long epochDay;
+	private final long nanoOfDay;
+
+	final int generation;
+	final long nanoTime;
+
+	JTimeSnapshot(long epochMilli, ZoneId zone, int generation) {
+		this.epochMilli = epochMilli;
+		this.zone = zone;
+		this.generation = generation;
+		this.nanoTime = System.nanoTime();
+		long epochSecond = Math.floorDiv(epochMilli, 1000L);
+		int nanos = (int) Math.floorMod(epochMilli, 1000L) * 1000000;
+		ZoneOffset offset = JZoneOffsets.get(zone).getOffset(epochSecond);
+		this.dateTime = LocalDateTime.ofEpochSecond(epochSecond, nanos, offset);
+		this.epochDay = dateTime.toLocalDate().toEpochDay();
+		this.nanoOfDay = dateTime.toLocalTime().toNanoOfDay();
+	}
+
+	/**
+	 * Reads the current time of a clock into a new snapshot that is not shared.
+	 *
+	 * @param clock the clock to read
+	 * @return the snapshot
+	 */
+	public static JTimeSnapshot of(Clock clock) {
+		return new JTimeSnapshot(clock.millis(), clock.getZone(), -1);
+	}
+
+	boolean isSameSecond(long epochMilli) {
+		return Math.floorDiv(epochMilli, 1000L) == Math.floorDiv(this.epochMilli, 1000L);
+	}
+
+	/**
+	 * Gets the instant of this snapshot as milliseconds since the epoch.
+	 *
+	 * @return the epoch millisecond
+	 */
+	public long getEpochMilli() {
+		return epochMilli;
+	}
+
+	/**
+	 * Gets the zone in which the date and time of this snapshot are resolved.
+	 *
+	 * @return the zone
+	 */
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	/**
+	 * Gets the date and time of this snapshot.
+	 *
+	 * @return the date and time
+	 */
+	public LocalDateTime getDateTime() {
+		return dateTime;
+	}
+
+	/**
+	 * Gets the date of this snapshot.
+	 *
+	 * @return the date
+	 */
+	public LocalDate getDate() {
+		return dateTime.toLocalDate();
+	}
+
+	/**
+	 * Gets the time of this snapshot.
+	 *
+	 * @return the time
+	 */
+	public LocalTime getTime() {
+		return dateTime.toLocalTime();
+	}
+
+	/**
+	 * Gets the date of this snapshot as an epoch day.
+	 *
+	 * @return the epoch day
+	 */
+	public long getEpochDay() {
+		return epochDay;
+	}
+
+	/**
+	 * Gets the time of this snapshot as nanoseconds since midnight.
+	 *
+	 * @return the nano of day
+	 */
+	public long getNanoOfDay() {
+		return nanoOfDay;
+	}
+
+	/**
+	 * Gets the date and time of this snapshot in another zone.
+	 *
+	 * @param zone the zone
+	 * @return the date and time in the zone
+	 */
+	public LocalDateTime getDateTime(ZoneId zone) {
+		if (zone.equals(this.zone))
+			return dateTime;
+		long epochSecond = Math.floorDiv(epochMilli, 1000L);
+		return LocalDateTime.ofEpochSecond(epochSecond, dateTime.getNano(),
+				JZoneOffsets.get(zone).getOffset(epochSecond));
+	}
+
+	/**
+	 * Gets the time of this snapshot in another zone as nanoseconds since
+	 * midnight.
+	 *
+	 * @param zone the zone
+	 * @return the nano of day in the zone
+	 */
+	public long getNanoOfDay(ZoneId zone) {
+		return zone.equals(this.zone) ? nanoOfDay : JZoneOffsets.get(zone).getNanoOfDay(epochMilli);
+	}
+
+	@Override
+	public String toString() {
+		return dateTime + "[" + zone + "]";
+	}
+
+}
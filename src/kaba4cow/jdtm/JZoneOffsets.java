@@ -0,0 +1,91 @@
+package kaba4cow.jdtm;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the offset of a zone. The offset is resolved through the zone rules
+ * once and then reused until the instant leaves the period between the
+ * surrounding transitions, so converting the instants of a clock that moves
+ * forward costs two comparisons per call. Instances are shared per zone and can
+ * be used from any thread.
+ */
+final class JZoneOffsets {
+
+	private static final ConcurrentHashMap<ZoneId, JZoneOffsets> registry = new ConcurrentHashMap<>();
+
+	private final ZoneRules rules;
+
+	private volatile Period period;
+
+	private JZoneOffsets(ZoneId zone) {
+		this.rules = zone.getRules();
+	}
+
+	/**
+	 * Gets the shared offset cache of a zone.
+	 *
+	 * @param zone the zone
+	 * @return the shared offset cache
+	 */
+	static JZoneOffsets get(ZoneId zone) {
+		JZoneOffsets offsets = registry.get(zone);
+		if (offsets == null)
+			offsets = registry.computeIfAbsent(zone, JZoneOffsets::new);
+		return offsets;
+	}
+
+	/**
+	 * Gets the offset of the zone at an instant.
+	 *
+	 * @param epochSecond the instant as seconds since the epoch
+	 * @return the offset
+	 */
+	ZoneOffset getOffset(long epochSecond) {
+		Period period = this.period;
+		if (period == null || epochSecond < period.fromEpochSecond || epochSecond >= period.untilEpochSecond) {
+			period = new Period(rules, epochSecond);
+			this.period = period;
+		}
+		return period.offset;
+	}
+
+	/**
+	 * Gets the local time of the zone at an instant as nanoseconds since midnight.
+	 *
+	 * @param epochMilli the instant as milliseconds since the epoch
+	 * @return the nano of day
+	 */
+	long getNanoOfDay(long epochMilli) {
+		long epochSecond = Math.floorDiv(epochMilli, 1000L);
+		long secondOfDay = Math.floorMod(epochSecond + getOffset(epochSecond).getTotalSeconds(), 86400L);
+		return secondOfDay * 1000000000L + Math.floorMod(epochMilli, 1000L) * 1000000L;
+	}
+
+	private static final class Period {
+
+		private final ZoneOffset offset;
+		private final long fromEpochSecond;
+		private final long untilEpochSecond;
+
+		private Period(ZoneRules rules, long epochSecond) {
+			Instant instant = Instant.ofEpochSecond(epochSecond);
+			offset = rules.getOffset(instant);
+			ZoneOffsetTransition previous = rules.previousTransition(instant);
+			if (previous == null)
+				fromEpochSecond = Long.MIN_VALUE;
+			else if (previous.getOffsetAfter().equals(offset))
+				fromEpochSecond = previous.toEpochSecond();
+			else
+				fromEpochSecond = epochSecond;
+			ZoneOffsetTransition next = rules.nextTransition(instant);
+			untilEpochSecond = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+		}
+
+	}
+
+}
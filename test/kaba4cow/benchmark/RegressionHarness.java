@@ -0,0 +1,361 @@
+package kaba4cow.benchmark;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.image.BufferedImage;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.swing.JComponent;
+import javax.swing.JSpinner;
+import javax.swing.SwingUtilities;
+
+import kaba4cow.jdtm.JCalendarPanel;
+import kaba4cow.jdtm.JClockPanel;
+import kaba4cow.jdtm.JTimeChooser;
+
+/**
+ * A headless regression harness that drives realistic scenarios on the Swing
+ * components, renders every frame offscreen and records paint latency
+ * percentiles, bytes allocated per operation and component counts. Results are
+ * written as a JSON report, and the process exits with status 1 when a
+ * scenario exceeds its budget, so that a build step running the harness fails.
+ * <p>
+ * Usage:
+ * {@code java [-Dregression.timing=true] kaba4cow.benchmark.RegressionHarness -budgets file [-report file]}
+ * <p>
+ * The budgets file is a properties file with the keys
+ * {@code <scenario>.p99Micros}, {@code <scenario>.bytesPerOperation} and
+ * {@code <scenario>.componentCount}. Frame times depend on the machine, so the
+ * p99 budget is only enforced if the system property {@code regression.timing}
+ * is true; the allocation and component count budgets are always enforced.
+ */
+public final class RegressionHarness {
+
+	private static final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	private static final int warmupRuns = 10;
+
+	private RegressionHarness() {
+	}
+
+	/**
+	 * Creates the scenarios. Must be called on the Event Dispatch Thread.
+	 *
+	 * @return the list of scenarios
+	 */
+	public static List<Scenario> createScenarios() {
+		List<Scenario> scenarios = new ArrayList<>();
+
+		scenarios.add(new Scenario("calendarYearNavigation", 365) {
+			private JCalendarPanel calendarPanel;
+			private KeyEvent keyEvent;
+
+			@Override
+			protected JComponent setUp() {
+				calendarPanel = new JCalendarPanel();
+				calendarPanel.selectDate(LocalDate.of(2024, 1, 1));
+				keyEvent = new KeyEvent(calendarPanel, KeyEvent.KEY_PRESSED, 0L, 0, KeyEvent.VK_RIGHT,
+						KeyEvent.CHAR_UNDEFINED);
+				return calendarPanel;
+			}
+
+			@Override
+			protected void operation(int index) {
+				for (KeyListener listener : calendarPanel.getKeyListeners())
+					listener.keyPressed(keyEvent);
+			}
+		});
+
+		scenarios.add(new Scenario("clockHourOfTicks", 3600) {
+			private JClockPanel clockPanel;
+			private LocalTime[] clockTimes;
+
+			@Override
+			protected JComponent setUp() {
+				clockPanel = new JClockPanel();
+				clockPanel.setSize(200, 200);
+				clockTimes = new LocalTime[getOperationCount()];
+				for (int i = 0; i < clockTimes.length; i++)
+					clockTimes[i] = LocalTime.of(10, 0).plusSeconds(i);
+				return clockPanel;
+			}
+
+			@Override
+			protected void operation(int index) {
+				clockPanel.setClockTime(clockTimes[index]);
+			}
+		});
+
+		scenarios.add(new Scenario("timeChooserRolloverStorm", 1000) {
+			private JSpinner secondSpinner;
+			private Integer rolloverSecond;
+
+			@Override
+			protected JComponent setUp() {
+				JTimeChooser timeChooser = new JTimeChooser(JTimeChooser.HOURS_MINUTES_SECONDS);
+				timeChooser.setTime(LocalTime.of(23, 59, 59));
+				secondSpinner = (JSpinner) timeChooser.getComponent(2);
+				rolloverSecond = 60;
+				return timeChooser;
+			}
+
+			@Override
+			protected void operation(int index) {
+				secondSpinner.setValue(rolloverSecond);
+			}
+		});
+
+		return scenarios;
+	}
+
+	private static int countComponents(Component component) {
+		int count = 1;
+		if (component instanceof Container)
+			for (Component child : ((Container) component).getComponents())
+				count += countComponents(child);
+		return count;
+	}
+
+	private static void layoutTree(Component component) {
+		if (component instanceof Container) {
+			Container container = (Container) component;
+			container.doLayout();
+			for (Component child : container.getComponents())
+				layoutTree(child);
+		}
+	}
+
+	public static void main(String[] args) throws IOException, InvocationTargetException, InterruptedException {
+		System.setProperty("java.awt.headless", "true");
+		Path reportPath = Paths.get("regression-report.json");
+		Properties budgets = null;
+		boolean checkTiming = Boolean.getBoolean("regression.timing");
+		for (int i = 0; i < args.length; i++)
+			if (args[i].equals("-report") && i + 1 < args.length)
+				reportPath = Paths.get(args[++i]);
+			else if (args[i].equals("-budgets") && i + 1 < args.length)
+				try (InputStream input = new FileInputStream(args[++i])) {
+					budgets = new Properties();
+					budgets.load(input);
+				}
+			else
+				throw new IllegalArgumentException("Unknown argument: " + args[i]);
+		if (budgets == null)
+			throw new IllegalArgumentException("Budgets file must be specified with -budgets");
+		Properties scenarioBudgets = budgets;
+		boolean timing = checkTiming;
+
+		List<Result> results = new ArrayList<>();
+		SwingUtilities.invokeAndWait(() -> {
+			for (Scenario scenario : createScenarios()) {
+				scenario.applyBudgets(scenarioBudgets);
+				for (int i = 0; i < warmupRuns; i++)
+					scenario.run(timing);
+				Result result = scenario.run(timing);
+				results.add(result);
+				System.out.println(result);
+			}
+		});
+
+		boolean passed = true;
+		try (Writer writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+			writer.write("{\n  \"scenarios\": [\n");
+			for (int i = 0; i < results.size(); i++) {
+				Result result = results.get(i);
+				passed &= result.isWithinBudget();
+				writer.write(result.toJson());
+				writer.write(i + 1 < results.size() ? ",\n" : "\n");
+			}
+			writer.write("  ],\n  \"timingChecked\": " + checkTiming + ",\n  \"passed\": " + passed + "\n}\n");
+		}
+		System.out.println("Report written to " + reportPath.toAbsolutePath());
+		System.exit(passed ? 0 : 1);
+	}
+
+	/**
+	 * A scenario that performs a number of operations on a component and renders
+	 * it offscreen after each operation.
+	 */
+	public static abstract class Scenario {
+
+		private final String name;
+		private final int operationCount;
+
+		private double p99MicrosBudget;
+		private double bytesPerOperationBudget;
+		private int componentCountBudget;
+
+		/**
+		 * Constructs a new Scenario. Its budgets are read from the budgets file.
+		 *
+		 * @param name           the name of the scenario
+		 * @param operationCount the number of operations (frames)
+		 */
+		protected Scenario(String name, int operationCount) {
+			this.name = name;
+			this.operationCount = operationCount;
+		}
+
+		/**
+		 * Creates the component driven by this scenario.
+		 *
+		 * @return the component to render
+		 */
+		protected abstract JComponent setUp();
+
+		/**
+		 * Performs one operation on the component.
+		 *
+		 * @param index the index of the operation
+		 */
+		protected abstract void operation(int index);
+
+		/**
+		 * Gets the name of the scenario.
+		 *
+		 * @return the name of the scenario
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the number of operations performed by the scenario.
+		 *
+		 * @return the number of operations
+		 */
+		public int getOperationCount() {
+			return operationCount;
+		}
+
+		private void applyBudgets(Properties budgets) {
+			p99MicrosBudget = Double.parseDouble(getBudget(budgets, "p99Micros"));
+			bytesPerOperationBudget = Double.parseDouble(getBudget(budgets, "bytesPerOperation"));
+			componentCountBudget = Integer.parseInt(getBudget(budgets, "componentCount"));
+		}
+
+		private String getBudget(Properties budgets, String key) {
+			String budget = budgets.getProperty(name + "." + key);
+			if (budget == null)
+				throw new IllegalArgumentException("Budget " + name + "." + key + " must be specified");
+			return budget.trim();
+		}
+
+		/**
+		 * Runs the scenario on the current thread.
+		 *
+		 * @param checkTiming whether the p99 frame time budget is enforced
+		 * @return the measured result
+		 */
+		public Result run(boolean checkTiming) {
+			JComponent component = setUp();
+			if (component.getWidth() <= 0 || component.getHeight() <= 0)
+				component.setSize(component.getPreferredSize());
+			layoutTree(component);
+			BufferedImage image = new BufferedImage(component.getWidth(), component.getHeight(),
+					BufferedImage.TYPE_INT_ARGB);
+			Graphics2D graphics = image.createGraphics();
+			long[] frameNanos = new long[operationCount];
+			long bytes = threadBean.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < operationCount; i++) {
+				long start = System.nanoTime();
+				operation(i);
+				component.paint(graphics);
+				frameNanos[i] = System.nanoTime() - start;
+			}
+			bytes = threadBean.getCurrentThreadAllocatedBytes() - bytes;
+			graphics.dispose();
+			return new Result(this, frameNanos, (double) bytes / operationCount, countComponents(component),
+					checkTiming);
+		}
+
+	}
+
+	/**
+	 * The result of a scenario run.
+	 */
+	public static final class Result {
+
+		private final Scenario scenario;
+		private final double p50Micros;
+		private final double p90Micros;
+		private final double p99Micros;
+		private final double maxMicros;
+		private final double bytesPerOperation;
+		private final int componentCount;
+		private final boolean checkTiming;
+
+		private Result(Scenario scenario, long[] frameNanos, double bytesPerOperation, int componentCount,
+				boolean checkTiming) {
+			this.scenario = scenario;
+			long[] sorted = frameNanos.clone();
+			Arrays.sort(sorted);
+			this.p50Micros = percentile(sorted, 0.50d);
+			this.p90Micros = percentile(sorted, 0.90d);
+			this.p99Micros = percentile(sorted, 0.99d);
+			this.maxMicros = sorted[sorted.length - 1] / 1000d;
+			this.bytesPerOperation = bytesPerOperation;
+			this.componentCount = componentCount;
+			this.checkTiming = checkTiming;
+		}
+
+		private static double percentile(long[] sorted, double percentile) {
+			int index = (int) Math.ceil(percentile * sorted.length) - 1;
+			return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1000d;
+		}
+
+		/**
+		 * Checks whether the result is within the budget of its scenario. The p99
+		 * frame time budget is only checked if the scenario was run with timing
+		 * checks.
+		 *
+		 * @return true if no checked budget is exceeded
+		 */
+		public boolean isWithinBudget() {
+			return (!checkTiming || p99Micros <= scenario.p99MicrosBudget)
+					&& bytesPerOperation <= scenario.bytesPerOperationBudget
+					&& componentCount <= scenario.componentCountBudget;
+		}
+
+		private String toJson() {
+			return String.format(Locale.ROOT,
+					"    { \"name\": \"%s\", \"operations\": %d, \"p50Micros\": %.1f, \"p90Micros\": %.1f, "
+							+ "\"p99Micros\": %.1f, \"maxMicros\": %.1f, \"bytesPerOperation\": %.1f, "
+							+ "\"componentCount\": %d, \"budget\": { \"p99Micros\": %.1f, "
+							+ "\"bytesPerOperation\": %.1f, \"componentCount\": %d }, \"passed\": %b }",
+					scenario.name, scenario.operationCount, p50Micros, p90Micros, p99Micros, maxMicros,
+					bytesPerOperation, componentCount, scenario.p99MicrosBudget, scenario.bytesPerOperationBudget,
+					scenario.componentCountBudget, isWithinBudget());
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT,
+					"%-28s p50 %8.1f us  p90 %8.1f us  p99 %8.1f us  max %8.1f us  %10.1f B/op  %3d components  %s",
+					scenario.name, p50Micros, p90Micros, p99Micros, maxMicros, bytesPerOperation, componentCount,
+					isWithinBudget() ? "PASSED" : "FAILED");
+		}
+
+	}
+
+}
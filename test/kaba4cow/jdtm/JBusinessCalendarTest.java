@@ -0,0 +1,142 @@
+package kaba4cow.jdtm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class JBusinessCalendarTest {
+
+	private static final long FIRST_DAY = LocalDate.of(1990, 1, 1).toEpochDay();
+	private static final long LAST_DAY = LocalDate.of(2060, 12, 31).toEpochDay();
+
+	private static JBusinessCalendar[] calendars() {
+		return new JBusinessCalendar[] { JBusinessCalendar.getWeekendCalendar(),
+				new JBusinessCalendar(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), JBusinessCalendar.observed(1, 1),
+						JBusinessCalendar.observed(7, 4), JBusinessCalendar.observed(12, 25),
+						JBusinessCalendar.dayOfWeekInMonth(11, DayOfWeek.THURSDAY, 4), JBusinessCalendar.easter(1)),
+				new JBusinessCalendar(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY), JBusinessCalendar.observed(1, 1),
+						JBusinessCalendar.observed(2, 29), JBusinessCalendar.fixed(5, 1)),
+				new JBusinessCalendar(EnumSet.of(DayOfWeek.SUNDAY), JBusinessCalendar.fixed(1, 1),
+						JBusinessCalendar.fixed(12, 31)) };
+	}
+
+	/**
+	 * Counts the working days of [FIRST_DAY, FIRST_DAY + i) day by day.
+	 */
+	private static long[] prefixCounts(JBusinessCalendar calendar) {
+		long[] prefix = new long[(int) (LAST_DAY - FIRST_DAY + 2)];
+		for (int i = 1; i < prefix.length; i++)
+			prefix[i] = prefix[i - 1] + (calendar.isWorkingDay(FIRST_DAY + i - 1) ? 1 : 0);
+		return prefix;
+	}
+
+	private static long addWorkingDaysStepByStep(JBusinessCalendar calendar, long epochDay, long days) {
+		long step = Long.signum(days);
+		for (long remaining = Math.abs(days); remaining > 0L;) {
+			epochDay += step;
+			if (calendar.isWorkingDay(epochDay))
+				remaining--;
+		}
+		return epochDay;
+	}
+
+	@Test
+	void countWorkingDaysMatchesDayByDayCount() {
+		Random random = new Random(17);
+		for (JBusinessCalendar calendar : calendars()) {
+			long[] prefix = prefixCounts(calendar);
+			for (int i = 0; i < 20000; i++) {
+				int from = random.nextInt(prefix.length);
+				int to = random.nextInt(10) == 0 ? random.nextInt(prefix.length)
+						: Math.min(prefix.length - 1, from + random.nextInt(800));
+				assertEquals(prefix[to] - prefix[from], calendar.countWorkingDays(FIRST_DAY + from, FIRST_DAY + to),
+						LocalDate.ofEpochDay(FIRST_DAY + from) + " - " + LocalDate.ofEpochDay(FIRST_DAY + to));
+			}
+		}
+	}
+
+	@Test
+	void addWorkingDaysMatchesStepByStep() {
+		Random random = new Random(71);
+		for (JBusinessCalendar calendar : calendars()) {
+			for (int i = 0; i < 5000; i++) {
+				long epochDay = FIRST_DAY + 2000 + random.nextInt((int) (LAST_DAY - FIRST_DAY - 4000));
+				long days = random.nextInt(10) == 0 ? random.nextInt(8001) - 4000 : random.nextInt(61) - 30;
+				long expected = addWorkingDaysStepByStep(calendar, epochDay, days);
+				assertEquals(expected, calendar.addWorkingDays(epochDay, days),
+						LocalDate.ofEpochDay(epochDay) + " + " + days);
+			}
+		}
+	}
+
+	@Test
+	void workingDaysAreWeekdaysWithoutFixedHolidays() {
+		JBusinessCalendar calendar = new JBusinessCalendar(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+				JBusinessCalendar.fixed(1, 1), JBusinessCalendar.fixed(12, 25));
+		for (long epochDay = FIRST_DAY; epochDay <= LAST_DAY; epochDay++) {
+			LocalDate date = LocalDate.ofEpochDay(epochDay);
+			boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+			boolean holiday = date.getMonth() == Month.JANUARY && date.getDayOfMonth() == 1
+					|| date.getMonth() == Month.DECEMBER && date.getDayOfMonth() == 25;
+			assertEquals(weekend, calendar.isWeekend(date), date.toString());
+			assertEquals(holiday, calendar.isHoliday(date), date.toString());
+			assertEquals(!weekend && !holiday, calendar.isWorkingDay(date), date.toString());
+		}
+	}
+
+	@Test
+	void newYearOnSaturdayIsObservedOnTheLastFridayOfThePreviousYear() {
+		JBusinessCalendar calendar = new JBusinessCalendar(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+				JBusinessCalendar.observed(1, 1));
+		LocalDate newYear = LocalDate.of(2022, 1, 1);
+		assertEquals(DayOfWeek.SATURDAY, newYear.getDayOfWeek());
+		LocalDate observed = LocalDate.of(2021, 12, 31);
+		assertTrue(calendar.isHoliday(observed));
+		assertFalse(calendar.isWorkingDay(observed));
+		assertEquals(LocalDate.of(2021, 12, 30), calendar.previousWorkingDay(observed));
+		assertEquals(LocalDate.of(2022, 1, 3), calendar.addWorkingDays(LocalDate.of(2021, 12, 30), 1L));
+		assertEquals(0L, calendar.countWorkingDays(observed, LocalDate.of(2022, 1, 3)));
+		assertTrue(calendar.isHoliday(LocalDate.of(2023, 1, 2)));
+		assertFalse(calendar.isHoliday(LocalDate.of(2022, 12, 30)));
+	}
+
+	@Test
+	void observedHolidaysAvoidTheWeekendDaysOfTheCalendar() {
+		JBusinessCalendar calendar = new JBusinessCalendar(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY),
+				JBusinessCalendar.observed(1, 1));
+		assertTrue(calendar.isHoliday(LocalDate.of(2022, 1, 2)));
+		assertFalse(calendar.isHoliday(LocalDate.of(2021, 12, 30)));
+		assertTrue(calendar.isHoliday(LocalDate.of(2020, 12, 31)));
+		assertFalse(calendar.isHoliday(LocalDate.of(2021, 1, 3)));
+	}
+
+	@Test
+	void februaryTwentyNinthIsOnlyObservedInLeapYears() {
+		JBusinessCalendar calendar = new JBusinessCalendar(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+				JBusinessCalendar.observed(2, 29));
+		for (int year = 1990; year <= 2060; year++) {
+			long holidays = 0L;
+			for (LocalDate date = LocalDate.of(year, 1, 1); date.getYear() == year; date = date.plusDays(1L))
+				if (calendar.isHoliday(date))
+					holidays++;
+			assertEquals(LocalDate.of(year, 1, 1).isLeapYear() ? 1L : 0L, holidays, Integer.toString(year));
+		}
+		assertTrue(calendar.isHoliday(LocalDate.of(2024, 2, 29)));
+		assertTrue(calendar.isHoliday(LocalDate.of(2032, 3, 1)));
+		assertTrue(calendar.isWorkingDay(LocalDate.of(2023, 2, 28)));
+		assertTrue(calendar.isWorkingDay(LocalDate.of(2023, 3, 1)));
+		assertEquals(Arrays.asList(LocalDate.of(2023, 3, 1), LocalDate.of(2024, 3, 1)),
+				Arrays.asList(calendar.addWorkingDays(LocalDate.of(2023, 2, 28), 1L),
+						calendar.addWorkingDays(LocalDate.of(2024, 2, 28), 1L)));
+	}
+
+}
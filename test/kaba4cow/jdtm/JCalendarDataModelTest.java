@@ -0,0 +1,203 @@
+package kaba4cow.jdtm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class JCalendarDataModelTest {
+
+	private static final class Entry {
+
+		private final long start;
+		private final long end;
+		private final Integer value;
+
+		private Entry(long start, long end, Integer value) {
+			this.start = start;
+			this.end = end;
+			this.value = value;
+		}
+
+	}
+
+	private static Entry randomEntry(Random random, int value) {
+		long start = random.nextInt(2000);
+		int span = random.nextInt(10) == 0 ? random.nextInt(400) : random.nextInt(5);
+		return new Entry(start, start + span, value);
+	}
+
+	private static List<String> oracleQuery(List<Entry> entries, long from, long to) {
+		List<Entry> overlapping = new ArrayList<>();
+		for (Entry entry : entries)
+			if (entry.start <= to && entry.end >= from)
+				overlapping.add(entry);
+		overlapping.sort((a, b) -> Long.compare(a.start, b.start));
+		List<String> result = new ArrayList<>();
+		for (Entry entry : overlapping)
+			result.add(entry.start + ".." + entry.end + "=" + entry.value);
+		return result;
+	}
+
+	private static List<String> modelQuery(JCalendarDataModel<Integer> model, long from, long to) {
+		List<String> result = new ArrayList<>();
+		int count = model.query(from, to, (start, end, value) -> result.add(start + ".." + end + "=" + value));
+		assertEquals(result.size(), count);
+		return result;
+	}
+
+	private static void assertMatchesOracle(JCalendarDataModel<Integer> model, List<Entry> entries, Random random) {
+		assertEquals(entries.size(), model.size());
+		for (int i = 0; i < 200; i++) {
+			long from = random.nextInt(2600) - 300;
+			long to = from + random.nextInt(60);
+			assertEquals(sorted(oracleQuery(entries, from, to)), sorted(modelQuery(model, from, to)));
+			int[] counts = new int[(int) (to - from + 1)];
+			model.fillCounts(from, counts);
+			for (int day = 0; day < counts.length; day++) {
+				int expected = oracleQuery(entries, from + day, from + day).size();
+				assertEquals(expected, counts[day]);
+				assertEquals(expected, model.getCount(from + day));
+			}
+		}
+	}
+
+	private static List<String> sorted(List<String> list) {
+		List<String> copy = new ArrayList<>(list);
+		copy.sort(null);
+		return copy;
+	}
+
+	@Test
+	void queriesMatchBruteForceAfterAddAndRemove() {
+		Random random = new Random(13);
+		JCalendarDataModel<Integer> model = new JCalendarDataModel<>();
+		List<Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 1500; i++) {
+			Entry entry = randomEntry(random, i);
+			entries.add(entry);
+			model.add(entry.start, entry.end, entry.value);
+		}
+		assertMatchesOracle(model, entries, random);
+		for (int i = 0; i < 700; i++) {
+			Entry entry = entries.remove(random.nextInt(entries.size()));
+			assertTrue(model.remove(entry.start, entry.end, entry.value));
+		}
+		assertMatchesOracle(model, entries, random);
+	}
+
+	@Test
+	void queryVisitsEntriesInOrderOfFirstDay() {
+		Random random = new Random(7);
+		JCalendarDataModel<Integer> model = new JCalendarDataModel<>();
+		for (int i = 0; i < 500; i++) {
+			Entry entry = randomEntry(random, i);
+			model.add(entry.start, entry.end, entry.value);
+		}
+		List<Long> starts = new ArrayList<>();
+		model.query(0, 2400, (start, end, value) -> starts.add(start));
+		List<Long> expected = new ArrayList<>(starts);
+		expected.sort(null);
+		assertEquals(expected, starts);
+	}
+
+	@Test
+	void addAllMatchesRepeatedAddAndFiresOnce() {
+		Random random = new Random(42);
+		JCalendarDataModel<Integer> model = new JCalendarDataModel<>();
+		List<Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			Entry entry = randomEntry(random, i);
+			entries.add(entry);
+			model.add(entry.start, entry.end, entry.value);
+		}
+		long[] starts = new long[1000];
+		long[] ends = new long[starts.length];
+		List<Integer> values = new ArrayList<>();
+		long from = Long.MAX_VALUE;
+		long to = Long.MIN_VALUE;
+		for (int i = 0; i < starts.length; i++) {
+			Entry entry = randomEntry(random, 300 + i);
+			entries.add(entry);
+			starts[i] = entry.start;
+			ends[i] = entry.end;
+			values.add(entry.value);
+			from = Math.min(from, entry.start);
+			to = Math.max(to, entry.end);
+		}
+		List<long[]> events = new ArrayList<>();
+		model.addDataModelListener((source, fromEpochDay, toEpochDay) -> events
+				.add(new long[] { fromEpochDay, toEpochDay }));
+		model.addAll(starts, ends, values);
+		assertEquals(1, events.size());
+		assertArrayEquals(new long[] { from, to }, events.get(0));
+		assertMatchesOracle(model, entries, random);
+	}
+
+	@Test
+	void queriesBetweenSingleChangesSeeEveryChange() {
+		Random random = new Random(5);
+		JCalendarDataModel<Integer> model = new JCalendarDataModel<>();
+		List<Entry> entries = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			if (!entries.isEmpty() && random.nextInt(4) == 0) {
+				Entry entry = entries.remove(random.nextInt(entries.size()));
+				assertTrue(model.remove(entry.start, entry.end, entry.value));
+			} else {
+				Entry entry = randomEntry(random, i);
+				entries.add(entry);
+				model.add(entry.start, entry.end, entry.value);
+			}
+			long day = random.nextInt(2400);
+			assertEquals(oracleQuery(entries, day, day).size(), model.getCount(day));
+			assertEquals(sorted(oracleQuery(entries, day, day + 30)), sorted(modelQuery(model, day, day + 30)));
+		}
+	}
+
+	@Test
+	void addAllKeepsTheOrderOfEntriesWithTheSameStartDay() {
+		JCalendarDataModel<Integer> model = new JCalendarDataModel<>();
+		model.add(5L, 5L, 0);
+		long[] starts = { 9L, 5L, 5L, 1L, 5L, 9L };
+		long[] ends = { 9L, 6L, 7L, 1L, 8L, 10L };
+		model.addAll(starts, ends, Arrays.asList(1, 2, 3, 4, 5, 6));
+		List<Integer> values = new ArrayList<>();
+		model.query(0L, 20L, (start, end, value) -> values.add(value));
+		assertEquals(Arrays.asList(4, 0, 2, 3, 5, 1, 6), values);
+	}
+
+	@Test
+	void addAllRejectsInvalidInput() {
+		JCalendarDataModel<Integer> model = new JCalendarDataModel<>();
+		assertThrows(IllegalArgumentException.class,
+				() -> model.addAll(new long[] { 1L }, new long[] { 1L, 2L }, Arrays.asList(1)));
+		assertThrows(IllegalArgumentException.class,
+				() -> model.addAll(new long[] { 2L }, new long[] { 1L }, Arrays.asList(1)));
+		assertEquals(0, model.size());
+	}
+
+	@Test
+	void singleDayEntriesAndClear() {
+		JCalendarDataModel<Integer> model = new JCalendarDataModel<>();
+		LocalDate date = LocalDate.of(2024, 2, 29);
+		model.add(date, 1);
+		model.add(date, 2);
+		model.add(date.minusDays(3), date.plusDays(3), 3);
+		assertEquals(3, model.getCount(date.toEpochDay()));
+		assertEquals(1, model.getCount(date.plusDays(1).toEpochDay()));
+		assertTrue(model.remove(date, 1));
+		assertEquals(2, model.getCount(date.toEpochDay()));
+		model.clear();
+		assertEquals(0, model.size());
+		assertEquals(0, model.getCount(date.toEpochDay()));
+	}
+
+}
@@ -0,0 +1,152 @@
+package kaba4cow.jdtm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class JCalendarSelectionModelTest {
+
+	private static final long NO_DAY = Long.MIN_VALUE;
+
+	private static final long FROM = -700L;
+	private static final long TO = 700L;
+
+	private static void assertMatches(TreeSet<Long> expected, JCalendarSelectionModel model) {
+		assertEquals(expected.isEmpty(), model.isEmpty());
+		assertEquals(expected.size(), model.getSelectedCount());
+		assertEquals(expected.isEmpty() ? NO_DAY : expected.first(), model.getFirstEpochDay());
+		assertEquals(expected.isEmpty() ? NO_DAY : expected.last(), model.getLastEpochDay());
+		for (long day = FROM - 10L; day <= TO + 10L; day++) {
+			assertEquals(expected.contains(day), model.contains(day), "day " + day);
+			Long next = expected.ceiling(day);
+			Long previous = expected.floor(day);
+			assertEquals(next == null ? NO_DAY : next, model.nextSelectedEpochDay(day));
+			assertEquals(previous == null ? NO_DAY : previous, model.previousSelectedEpochDay(day));
+		}
+		List<long[]> expectedRanges = new ArrayList<>();
+		for (long day : expected)
+			if (!expectedRanges.isEmpty() && expectedRanges.get(expectedRanges.size() - 1)[1] == day - 1L)
+				expectedRanges.get(expectedRanges.size() - 1)[1] = day;
+			else
+				expectedRanges.add(new long[] { day, day });
+		List<long[]> ranges = new ArrayList<>();
+		assertEquals(expectedRanges.size(), model.forEachRange((start, end) -> ranges.add(new long[] { start, end })));
+		assertEquals(expectedRanges.size(), ranges.size());
+		for (int i = 0; i < ranges.size(); i++) {
+			assertEquals(expectedRanges.get(i)[0], ranges.get(i)[0]);
+			assertEquals(expectedRanges.get(i)[1], ranges.get(i)[1]);
+		}
+	}
+
+	@Test
+	void rangeOperationsMatchSetOfDays() {
+		Random random = new Random(16);
+		JCalendarSelectionModel model = new JCalendarSelectionModel();
+		TreeSet<Long> expected = new TreeSet<>();
+		List<long[]> events = new ArrayList<>();
+		model.addSelectionListener((source, fromEpochDay, toEpochDay) -> events
+				.add(new long[] { fromEpochDay, toEpochDay }));
+		for (int step = 0; step < 400; step++) {
+			long anchor = FROM + random.nextInt((int) (TO - FROM + 1L));
+			long lead = Math.max(FROM, Math.min(TO, anchor + random.nextInt(121) - 60));
+			long from = Math.min(anchor, lead);
+			long to = Math.max(anchor, lead);
+			TreeSet<Long> before = new TreeSet<>(expected);
+			events.clear();
+			switch (random.nextInt(5)) {
+			case 0:
+				model.setSelectionInterval(anchor, lead);
+				expected.clear();
+				for (long day = from; day <= to; day++)
+					expected.add(day);
+				break;
+			case 1:
+				model.addSelectionInterval(anchor, lead);
+				for (long day = from; day <= to; day++)
+					expected.add(day);
+				break;
+			case 2:
+				model.removeSelectionInterval(anchor, lead);
+				for (long day = from; day <= to; day++)
+					expected.remove(day);
+				break;
+			case 3:
+				model.toggle(anchor);
+				if (!expected.remove(anchor))
+					expected.add(anchor);
+				break;
+			default:
+				if (random.nextInt(10) == 0) {
+					model.clearSelection();
+					expected.clear();
+				}
+			}
+			assertMatches(expected, model);
+			for (long day = FROM; day <= TO; day++)
+				if (before.contains(day) != expected.contains(day)) {
+					boolean covered = false;
+					for (long[] event : events)
+						covered |= event[0] <= day && day <= event[1];
+					assertTrue(covered, "change of day " + day + " not announced");
+				}
+		}
+	}
+
+	@Test
+	void toggleSelectsAndDeselects() {
+		JCalendarSelectionModel model = new JCalendarSelectionModel();
+		long day = LocalDate.of(2024, 2, 29).toEpochDay();
+		model.toggle(day);
+		assertTrue(model.contains(day));
+		assertEquals(day, model.getAnchorEpochDay());
+		assertEquals(day, model.getLeadEpochDay());
+		model.toggle(day);
+		assertFalse(model.contains(day));
+		assertTrue(model.isEmpty());
+	}
+
+	@Test
+	void selectFollowsListClickSemantics() {
+		JCalendarSelectionModel model = new JCalendarSelectionModel();
+		model.select(10L, false, false);
+		assertEquals(1, model.getSelectedCount());
+		model.select(14L, false, true);
+		assertEquals(5, model.getSelectedCount(10L, 14L));
+		assertEquals(10L, model.getAnchorEpochDay());
+		assertEquals(14L, model.getLeadEpochDay());
+		model.select(12L, true, false);
+		assertFalse(model.contains(12L));
+		assertEquals(4, model.getSelectedCount());
+		model.select(20L, true, false);
+		model.select(22L, true, true);
+		assertEquals(7, model.getSelectedCount());
+		assertTrue(model.contains(21L));
+		assertTrue(model.contains(11L));
+		model.select(30L, false, false);
+		assertEquals(1, model.getSelectedCount());
+		assertEquals(30L, model.getFirstEpochDay());
+	}
+
+	@Test
+	void selectionGrowsTowardsEarlierDays() {
+		JCalendarSelectionModel model = new JCalendarSelectionModel();
+		model.addSelectionInterval(1000L, 1001L);
+		model.addSelectionInterval(-5000L, -4999L);
+		assertEquals(4, model.getSelectedCount());
+		assertEquals(2, model.getSelectedCount(-6000L, 0L));
+		assertEquals(-5000L, model.getFirstEpochDay());
+		assertEquals(1001L, model.getLastEpochDay());
+		assertThrows(IllegalArgumentException.class,
+				() -> model.addSelectionInterval(0L, (long) Integer.MAX_VALUE + 10000L));
+	}
+
+}
@@ -0,0 +1,181 @@
+package kaba4cow.jdtm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JDateTimeExportTest {
+
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.uuuu");
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+	private static ForkJoinPool pool;
+	private static int[] epochDays;
+	private static int[] secondsOfDay;
+
+	@BeforeAll
+	static void setUp() {
+		pool = new ForkJoinPool(4);
+		int first = (int) LocalDate.of(0, 1, 1).toEpochDay();
+		int last = (int) LocalDate.of(9999, 12, 31).toEpochDay();
+		epochDays = new int[last - first + 1];
+		for (int i = 0; i < epochDays.length; i++)
+			epochDays[i] = first + i;
+		secondsOfDay = new int[86400];
+		for (int i = 0; i < secondsOfDay.length; i++)
+			secondsOfDay[i] = i;
+	}
+
+	@AfterAll
+	static void tearDown() {
+		pool.shutdown();
+	}
+
+	private static void assertDates(String text, int from, int count, char separator) {
+		int recordLength = JDateTimeExport.getDateRecordLength();
+		assertEquals(count * recordLength, text.length());
+		for (int i = 0; i < count; i++) {
+			int offset = i * recordLength;
+			LocalDate date = LocalDate.ofEpochDay(epochDays[from + i]);
+			assertEquals(date.format(DATE_FORMATTER), text.substring(offset, offset + recordLength - 1));
+			assertEquals(separator, text.charAt(offset + recordLength - 1));
+			assertEquals(epochDays[from + i], JDateTimeUtils.parseDate(text, offset));
+		}
+	}
+
+	private static void assertTimes(String text, int from, int count, char separator) {
+		int recordLength = JDateTimeExport.getTimeRecordLength();
+		assertEquals(count * recordLength, text.length());
+		for (int i = 0; i < count; i++) {
+			int offset = i * recordLength;
+			LocalTime time = LocalTime.ofSecondOfDay(secondsOfDay[from + i]);
+			assertEquals(time.format(TIME_FORMATTER), text.substring(offset, offset + recordLength - 1));
+			assertEquals(separator, text.charAt(offset + recordLength - 1));
+			assertEquals(secondsOfDay[from + i] / 60 * 60, JDateTimeUtils.parseTime(text, offset));
+		}
+	}
+
+	@Test
+	void datesRoundTripThroughCharArrays() {
+		for (JDateTimeExport export : new JDateTimeExport[] { new JDateTimeExport('\n'),
+				new JDateTimeExport('\n', pool) }) {
+			char[] chars = new char[epochDays.length * JDateTimeExport.getDateRecordLength() + 3];
+			int length = export.writeDates(epochDays, 0, epochDays.length, chars, 3);
+			assertDates(new String(chars, 3, length), 0, epochDays.length, '\n');
+		}
+	}
+
+	@Test
+	void timesRoundTripThroughCharArrays() {
+		for (JDateTimeExport export : new JDateTimeExport[] { new JDateTimeExport(';'),
+				new JDateTimeExport(';', pool) }) {
+			char[] chars = new char[secondsOfDay.length * JDateTimeExport.getTimeRecordLength()];
+			int length = export.writeTimes(secondsOfDay, 0, secondsOfDay.length, chars, 0);
+			assertTimes(new String(chars, 0, length), 0, secondsOfDay.length, ';');
+		}
+	}
+
+	@Test
+	void datesAndTimesRoundTripThroughByteBuffers() {
+		JDateTimeExport export = new JDateTimeExport(',', pool);
+		int from = 1000;
+		int count = 100000;
+		for (ByteBuffer buffer : new ByteBuffer[] {
+				ByteBuffer.allocate(5 + count * JDateTimeExport.getDateRecordLength()),
+				ByteBuffer.allocateDirect(5 + count * JDateTimeExport.getDateRecordLength()) }) {
+			buffer.position(5);
+			int length = export.writeDates(epochDays, from, count, buffer);
+			assertEquals(5 + length, buffer.position());
+			byte[] bytes = new byte[length];
+			buffer.position(5);
+			buffer.get(bytes);
+			assertDates(new String(bytes, StandardCharsets.US_ASCII), from, count, ',');
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(secondsOfDay.length * JDateTimeExport.getTimeRecordLength());
+		export.writeTimes(secondsOfDay, 0, secondsOfDay.length, buffer);
+		assertTimes(new String(buffer.array(), StandardCharsets.US_ASCII), 0, secondsOfDay.length, ',');
+	}
+
+	@Test
+	void datesAndTimesRoundTripThroughFileChannels(@TempDir Path directory) throws IOException {
+		JDateTimeExport export = new JDateTimeExport('\n', pool);
+		Path dates = directory.resolve("dates.txt");
+		try (FileChannel channel = FileChannel.open(dates, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			assertEquals((long) epochDays.length * JDateTimeExport.getDateRecordLength(),
+					export.writeDates(epochDays, 0, epochDays.length, channel));
+		}
+		assertDates(new String(Files.readAllBytes(dates), StandardCharsets.US_ASCII), 0, epochDays.length, '\n');
+		Path times = directory.resolve("times.txt");
+		try (FileChannel channel = FileChannel.open(times, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			export.writeTimes(secondsOfDay, 0, secondsOfDay.length, channel);
+		}
+		assertTimes(new String(Files.readAllBytes(times), StandardCharsets.US_ASCII), 0, secondsOfDay.length, '\n');
+	}
+
+	@Test
+	void fileChannelsAreWrittenInParallel(@TempDir Path directory) throws IOException {
+		ForkJoinPool idlePool = new ForkJoinPool(2);
+		try {
+			JDateTimeExport export = new JDateTimeExport('\n', idlePool);
+			try (FileChannel channel = FileChannel.open(directory.resolve("dates.txt"), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE)) {
+				export.writeDates(epochDays, 0, epochDays.length, channel);
+			}
+			assertTrue(idlePool.getPoolSize() > 0);
+		} finally {
+			idlePool.shutdown();
+		}
+	}
+
+	@Test
+	void outOfRangeValuesLeaveTheOutputUntouched(@TempDir Path directory) throws IOException {
+		int[] values = epochDays.clone();
+		values[values.length - 1] = (int) LocalDate.of(10000, 1, 1).toEpochDay();
+		for (JDateTimeExport export : new JDateTimeExport[] { new JDateTimeExport('\n'),
+				new JDateTimeExport('\n', pool) }) {
+			Path dates = directory.resolve("dates.txt");
+			try (FileChannel channel = FileChannel.open(dates, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+				assertThrows(IllegalArgumentException.class, () -> export.writeDates(values, 0, values.length, channel));
+			}
+			assertEquals(0L, Files.size(dates));
+			ByteBuffer buffer = ByteBuffer.allocate(values.length * JDateTimeExport.getDateRecordLength());
+			assertThrows(IllegalArgumentException.class, () -> export.writeDates(values, 0, values.length, buffer));
+			assertEquals(0, buffer.position());
+			assertEquals(0, buffer.get(0));
+			char[] chars = new char[values.length * JDateTimeExport.getDateRecordLength()];
+			assertThrows(IllegalArgumentException.class, () -> export.writeDates(values, 0, values.length, chars, 0));
+			assertEquals(0, chars[0]);
+		}
+	}
+
+	@Test
+	void invalidInputIsRejected() {
+		JDateTimeExport export = new JDateTimeExport('\n');
+		char[] chars = new char[64];
+		assertThrows(IllegalArgumentException.class, () -> new JDateTimeExport((char) 233));
+		assertThrows(IllegalArgumentException.class,
+				() -> export.writeDates(new int[] { (int) LocalDate.of(10000, 1, 1).toEpochDay() }, 0, 1, chars, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> export.writeTimes(new int[] { 86400 }, 0, 1, chars, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> export.writeDates(new int[6], 0, 6, chars, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> export.writeTimes(new int[2], 1, 2, chars, 0));
+	}
+
+}
@@ -0,0 +1,136 @@
+package kaba4cow.jdtm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class JDateTimeUtilsTest {
+
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.uuuu")
+			.withResolverStyle(ResolverStyle.STRICT);
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm")
+			.withResolverStyle(ResolverStyle.STRICT);
+
+	private static int expectedDate(String text) {
+		try {
+			return (int) LocalDate.parse(text, DATE_FORMATTER).toEpochDay();
+		} catch (DateTimeParseException exception) {
+			return JDateTimeUtils.PARSE_ERROR;
+		}
+	}
+
+	private static int expectedTime(String text) {
+		try {
+			return LocalTime.parse(text, TIME_FORMATTER).toSecondOfDay();
+		} catch (DateTimeParseException exception) {
+			return JDateTimeUtils.PARSE_ERROR;
+		}
+	}
+
+	private static int parseDateEverywhere(String text, int offset) {
+		int fromText = JDateTimeUtils.parseDate(text, offset);
+		assertEquals(fromText, JDateTimeUtils.parseDate(text.toCharArray(), offset), text);
+		assertEquals(fromText,
+				JDateTimeUtils.parseDate(ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)), offset), text);
+		return fromText;
+	}
+
+	private static int parseTimeEverywhere(String text, int offset) {
+		int fromText = JDateTimeUtils.parseTime(text, offset);
+		assertEquals(fromText, JDateTimeUtils.parseTime(text.toCharArray(), offset), text);
+		assertEquals(fromText,
+				JDateTimeUtils.parseTime(ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)), offset), text);
+		return fromText;
+	}
+
+	@Test
+	void formattedDatesParseBackToTheSameDay() {
+		LocalDate last = LocalDate.of(9999, 12, 31);
+		for (LocalDate date = LocalDate.of(0, 1, 1); !date.isAfter(last); date = date.plusDays(1L)) {
+			String text = JDateTimeUtils.formatDate(date);
+			assertEquals(date.format(DATE_FORMATTER), text);
+			assertEquals(date.toEpochDay(), parseDateEverywhere(text, 0), text);
+		}
+	}
+
+	@Test
+	void formattedTimesParseBackToTheSameMinute() {
+		for (int minute = 0; minute < 24 * 60; minute++) {
+			LocalTime time = LocalTime.ofSecondOfDay(minute * 60L);
+			String text = JDateTimeUtils.formatTime(time);
+			assertEquals(time.format(TIME_FORMATTER), text);
+			assertEquals(time.toSecondOfDay(), parseTimeEverywhere(text, 0), text);
+		}
+	}
+
+	@Test
+	void malformedInputIsRejectedLikeJavaTime() {
+		Random random = new Random(23);
+		char[] alphabet = "0123456789.:/ -".toCharArray();
+		char[] date = new char[JDateTimeUtils.DATE_LENGTH];
+		char[] time = new char[JDateTimeUtils.TIME_LENGTH];
+		for (int i = 0; i < 200000; i++) {
+			for (int j = 0; j < date.length; j++)
+				date[j] = j == 2 || j == 5 ? (random.nextInt(20) == 0 ? alphabet[random.nextInt(alphabet.length)] : '.')
+						: (char) ('0' + random.nextInt(random.nextInt(8) == 0 ? 11 : 10));
+			for (int j = 0; j < time.length; j++)
+				time[j] = j == 2 ? (random.nextInt(20) == 0 ? alphabet[random.nextInt(alphabet.length)] : ':')
+						: (char) ('0' + random.nextInt(random.nextInt(8) == 0 ? 11 : 10));
+			String dateText = new String(date);
+			String timeText = new String(time);
+			assertEquals(expectedDate(dateText), parseDateEverywhere(dateText, 0), dateText);
+			assertEquals(expectedTime(timeText), parseTimeEverywhere(timeText, 0), timeText);
+		}
+	}
+
+	@Test
+	void offsetsOutsideTheInputAreRejected() {
+		String text = "x01.02.2003";
+		assertEquals(LocalDate.of(2003, 2, 1).toEpochDay(), parseDateEverywhere(text, 1));
+		assertEquals(JDateTimeUtils.PARSE_ERROR, parseDateEverywhere(text, 2));
+		assertEquals(JDateTimeUtils.PARSE_ERROR, parseDateEverywhere(text, -1));
+		assertEquals(JDateTimeUtils.PARSE_ERROR, parseTimeEverywhere("12:3", 0));
+		assertEquals(JDateTimeUtils.PARSE_ERROR, parseTimeEverywhere("24:00", 0));
+		assertEquals(JDateTimeUtils.PARSE_ERROR, parseDateEverywhere("29.02.2023", 0));
+		assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), parseDateEverywhere("29.02.2024", 0));
+	}
+
+	@Test
+	void batchParsingMatchesSingleParsing() {
+		String text = "01.01.1970;31.12.1969;32.01.2000;29.02.2000;";
+		int[] offsets = { 0, 11, 22, 33, 44 };
+		int[] epochDays = new int[offsets.length];
+		int[] expected = { 0, -1, JDateTimeUtils.PARSE_ERROR, (int) LocalDate.of(2000, 2, 29).toEpochDay(),
+				JDateTimeUtils.PARSE_ERROR };
+		assertEquals(2, JDateTimeUtils.parseDates(text, offsets, epochDays, offsets.length));
+		assertArrayEquals(expected, epochDays);
+		assertEquals(2, JDateTimeUtils.parseDates(text.toCharArray(), offsets, epochDays, offsets.length));
+		assertArrayEquals(expected, epochDays);
+		assertEquals(2, JDateTimeUtils.parseDates(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)), offsets,
+				epochDays, offsets.length));
+		assertArrayEquals(expected, epochDays);
+
+		String times = "00:00 23:59 12:60 07:05";
+		int[] timeOffsets = { 0, 6, 12, 18 };
+		int[] secondsOfDay = new int[timeOffsets.length];
+		int[] expectedTimes = { 0, 86340, JDateTimeUtils.PARSE_ERROR, 7 * 3600 + 5 * 60 };
+		assertEquals(1, JDateTimeUtils.parseTimes(times, timeOffsets, secondsOfDay, timeOffsets.length));
+		assertArrayEquals(expectedTimes, secondsOfDay);
+		assertEquals(1, JDateTimeUtils.parseTimes(times.toCharArray(), timeOffsets, secondsOfDay, timeOffsets.length));
+		assertArrayEquals(expectedTimes, secondsOfDay);
+		assertEquals(1, JDateTimeUtils.parseTimes(ByteBuffer.wrap(times.getBytes(StandardCharsets.US_ASCII)),
+				timeOffsets, secondsOfDay, timeOffsets.length));
+		assertArrayEquals(expectedTimes, secondsOfDay);
+	}
+
+}